@@ -0,0 +1,375 @@
+package treespeed;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Mikey Dimucci
+ * Program 2
+ * AVL tree
+ */
+public class AVLTree extends BinaryTree {
+
+    // Node class with additional height and balanceFactor fields
+    // extends BinNode so the inherited traversals and counting see the same nodes
+    // size is the number of keys in the subtree, for size(), rank and select
+    private static class Node extends BinNode {
+        int height, balanceFactor, size;
+
+        Node(String key) {
+            super(key);
+            // New nodes are initially added at leaf
+            this.height = 1;
+            this.size = 1;
+        }
+    }
+
+    // subtrees with fewer keys than this are built by a single thread in buildParallel
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    // Deepest an AVL tree can get: height h needs at least fib(h + 2) - 1 nodes, far more than fit in memory at 64
+    private static final int MAX_HEIGHT = 64;
+
+    // Nodes from the root down to the current one, reused by every insert and remove
+    private final Node[] path = new Node[MAX_HEIGHT];
+
+    // Get the height of the node
+    private int getHeight(BinNode node) {
+        return node == null ? 0 : ((Node) node).height;
+    }
+
+    // Update the height of the node
+    private void setHeight(Node node) {
+        node.height = 1 + Math.max(getHeight(node.getLeft()), getHeight(node.getRight()));
+    }
+
+    // Get the number of keys under the node
+    private static int getSize(BinNode node) {
+        return node == null ? 0 : ((Node) node).size;
+    }
+
+    // Update the size of the node from its children
+    private void setSize(Node node) {
+        node.size = 1 + getSize(node.getLeft()) + getSize(node.getRight());
+    }
+
+    // Get the balance factor of the node
+    private int getBalanceFactor(BinNode node) {
+        return node == null ? 0 : getHeight(node.getLeft()) - getHeight(node.getRight());
+    }
+
+    // Perform a left rotation
+    private Node rotateLeft(Node y) {
+        Node x = (Node) y.getRight();
+        BinNode T2 = x.getLeft();
+
+        // Perform rotation
+        x.setLeft(y);
+        y.setRight(T2);
+
+        // Update heights and sizes
+        setHeight(y);
+        setHeight(x);
+        setSize(y);
+        setSize(x);
+
+        metrics.rotation();
+
+        // Return new root
+        return x;
+    }
+
+    // Perform a right rotation
+    private Node rotateRight(Node x) {
+        Node y = (Node) x.getLeft();
+        BinNode T2 = y.getRight();
+
+        // Perform rotation
+        y.setRight(x);
+        x.setLeft(T2);
+
+        // Update heights and sizes
+        setHeight(x);
+        setHeight(y);
+        setSize(x);
+        setSize(y);
+
+        metrics.rotation();
+
+        // Return new root
+        return y;
+    }
+
+    // Public method to insert a key into the AVL tree
+    // Iterative: the nodes on the way down go on the path stack and are rebalanced on the way back up
+    @Override
+    public void insert(String key) {
+        metrics.operation();
+        Node node = (Node) getRoot();
+        if (node == null) {
+            setRoot(new Node(key));
+            return;
+        }
+        // Perform the normal BST insertion
+        long prefix = BinNode.prefix(key);
+        int depth = 0;
+        while (true) {
+            path[depth++] = node;
+            metrics.visit();
+            metrics.comparison();
+            // compare the data to be inserted with the current node's data to the left
+            int cmp = node.compare(key, prefix);
+            if (cmp == 0) {
+                metrics.depth(depth);
+                clearPath(depth);
+                return; // Duplicate keys are not allowed
+            }
+            BinNode next = cmp < 0 ? node.getLeft() : node.getRight();
+            if (next == null) {
+                if (cmp < 0) {
+                    node.setLeft(new Node(key));
+                } else {
+                    node.setRight(new Node(key));
+                }
+                break;
+            }
+            node = (Node) next;
+        }
+        metrics.depth(depth + 1);
+
+        retrace(depth);
+    }
+
+    // Public method to remove a key from the AVL tree
+    @Override
+    public void remove(String key) {
+        // Perform the normal BST deletion
+        metrics.operation();
+        long prefix = BinNode.prefix(key);
+        int depth = 0;
+        Node node = (Node) getRoot();
+        while (node != null) {
+            path[depth++] = node;
+            metrics.visit();
+            metrics.comparison();
+            // compare the data to be removed with the current node's data to the left
+            int cmp = node.compare(key, prefix);
+            if (cmp == 0) {
+                break;
+            }
+            node = (Node) (cmp < 0 ? node.getLeft() : node.getRight());
+        }
+        if (node == null) {
+            metrics.depth(depth);
+            clearPath(depth);
+            return;
+        }
+
+        // Node with two children Get the inorder successor (smallest in the right subtree)
+        if (node.getLeft() != null && node.getRight() != null) {
+            Node successor = (Node) node.getRight();
+            path[depth++] = successor;
+            metrics.visit();
+            while (successor.getLeft() != null) {
+                successor = (Node) successor.getLeft();
+                path[depth++] = successor;
+                metrics.visit();
+            }
+            // Copy the inorder successor's data to this node, then delete the successor
+            node.setData(successor.getData());
+            node = successor;
+        }
+
+        metrics.depth(depth);
+
+        // Node with only one child or no child, splice it out
+        BinNode child = node.getLeft() == null ? node.getRight() : node.getLeft();
+        depth--;
+        path[depth] = null;
+        replaceChild(depth == 0 ? null : path[depth - 1], node, child);
+
+        retrace(depth);
+    }
+
+    // Walk back up the path stack, rebalancing each ancestor
+    // Once a subtree comes out the same height it went in no more rotations can happen above it,
+    // only the sizes of the rest of the path still change
+    private void retrace(int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            Node node = path[i];
+            path[i] = null;
+            int oldHeight = node.height;
+            Node subtree = rebalance(node);
+            if (subtree != node) {
+                replaceChild(i == 0 ? null : path[i - 1], node, subtree);
+            }
+            if (subtree.height == oldHeight) {
+                for (int j = i - 1; j >= 0; j--) {
+                    setSize(path[j]);
+                    path[j] = null;
+                }
+                return;
+            }
+        }
+    }
+
+    // ORDER STATISTICS
+    // every node knows the size of its subtree, so these follow one path from the root
+    @Override
+    public int countNodes() {
+        return getSize(getRoot());
+    }
+
+    @Override
+    public int size() {
+        return getSize(getRoot());
+    }
+
+    // Number of keys less than key
+    @Override
+    public int rank(String key) {
+        int rank = 0;
+        long prefix = BinNode.prefix(key);
+        BinNode node = getRoot();
+        while (node != null) {
+            if (node.compare(key, prefix) <= 0) {
+                node = node.getLeft();
+            } else {
+                rank += getSize(node.getLeft()) + 1;
+                node = node.getRight();
+            }
+        }
+        return rank;
+    }
+
+    // The key with index keys below it, counting from 0
+    @Override
+    public String select(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+        BinNode node = getRoot();
+        while (true) {
+            int leftSize = getSize(node.getLeft());
+            if (index < leftSize) {
+                node = node.getLeft();
+            } else if (index == leftSize) {
+                return node.getData();
+            } else {
+                index -= leftSize + 1;
+                node = node.getRight();
+            }
+        }
+    }
+
+    // Replace oldChild with newChild under parent, or at the root when parent is null
+    private void replaceChild(Node parent, BinNode oldChild, BinNode newChild) {
+        if (parent == null) {
+            setRoot(newChild);
+        } else if (parent.getLeft() == oldChild) {
+            parent.setLeft(newChild);
+        } else {
+            parent.setRight(newChild);
+        }
+    }
+
+    // Drop the references left on the path stack so removed nodes can be collected
+    private void clearPath(int depth) {
+        Arrays.fill(path, 0, depth, null);
+    }
+
+    // Build a valid AVL tree from a list of keys in O(n), replacing the current contents
+    // Duplicate keys are not allowed, so repeats are dropped like insert would
+    @Override
+    public void buildFromSorted(String[] keys) {
+        String[] sorted = distinct(inOrder(keys));
+        setRoot(buildFromSorted(sorted, 0, sorted.length - 1));
+    }
+
+    // Middle key as the root, both halves differ in size by at most one so no rotations are needed
+    private Node buildFromSorted(String[] keys, int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        Node node = new Node(keys[mid]);
+        node.setLeft(buildFromSorted(keys, lo, mid - 1));
+        node.setRight(buildFromSorted(keys, mid + 1, hi));
+        setHeight(node);
+        setSize(node);
+        node.balanceFactor = getBalanceFactor(node);
+        return node;
+    }
+
+    // Build from a list of keys in any order on every core, replacing the current contents
+    // The keys are sorted with Arrays.parallelSort and repeats dropped like insert would, then the two halves
+    // of every large subtree are built as fork/join tasks. Same shape as buildFromSorted, so no rotations either
+    public void buildParallel(String[] keys) {
+        String[] sorted = parallelSorted(keys);
+        setRoot(ForkJoinPool.commonPool().invoke(new BuildTask(sorted, 0, sorted.length - 1)));
+    }
+
+    // The subtree for keys[lo..hi], the left half is forked and the right half built by this thread
+    // never serialized, RecursiveTask is Serializable only by inheritance
+    @SuppressWarnings("serial")
+    private final class BuildTask extends RecursiveTask<Node> {
+        private final String[] keys;
+        private final int lo, hi;
+
+        BuildTask(String[] keys, int lo, int hi) {
+            this.keys = keys;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Node compute() {
+            if (hi - lo < PARALLEL_THRESHOLD) {
+                return buildFromSorted(keys, lo, hi);
+            }
+            int mid = (lo + hi) >>> 1;
+            BuildTask left = new BuildTask(keys, lo, mid - 1);
+            left.fork();
+            Node node = new Node(keys[mid]);
+            node.setRight(new BuildTask(keys, mid + 1, hi).compute());
+            node.setLeft(left.join());
+            setHeight(node);
+            setSize(node);
+            node.balanceFactor = getBalanceFactor(node);
+            return node;
+        }
+    }
+
+    // Restore the AVL property at node after one of its subtrees changed height
+    private Node rebalance(Node node) {
+        // Update height and size of this ancestor node
+        setHeight(node);
+        setSize(node);
+
+        // Get the balance factor of this ancestor node to check whether this node became unbalanced
+        node.balanceFactor = getBalanceFactor(node);
+
+        // If the node becomes unbalanced, then there are 4 cases
+        // I am God's biggest geeks4geeks fan
+        if (node.balanceFactor > 1) {
+            // Left Right Case
+            if (getBalanceFactor(node.getLeft()) < 0) {
+                node.setLeft(rotateLeft((Node) node.getLeft()));
+            }
+            // Left Left Case
+            return rotateRight(node);
+        }
+        if (node.balanceFactor < -1) {
+            // Right Left Case
+            if (getBalanceFactor(node.getRight()) > 0) {
+                node.setRight(rotateRight((Node) node.getRight()));
+            }
+            // Right Right Case
+            return rotateLeft(node);
+        }
+
+        // Return the (unchanged) node pointer
+        return node;
+    }
+}
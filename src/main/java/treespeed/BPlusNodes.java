@@ -0,0 +1,370 @@
+package treespeed;
+
+/*
+ * Mikey Dimucci
+ * B+ tree nodes
+ *
+ * The node layout and restructuring shared by BPlusTree and IntBPlusTree.
+ * Every node holds up to fanout - 1 keys in one contiguous array, so a lookup touches about
+ * log_fanout(n) nodes instead of log_2(n) and each node is scanned in cache.
+ * Inner nodes only route, every key lives in a leaf, and the leaves are linked in order
+ * so inorder() is a straight walk along the leaf chain.
+ * Separator keys[i] of an inner node routes between children: every key in children[i] is < keys[i]
+ * and every key in children[i + 1] is >= keys[i]. remove does not update separators,
+ * so keys[i] need not be in the tree any more.
+ *
+ * A is the key array type (String[] or int[]). Keys only move between nodes with System.arraycopy,
+ * so nothing here compares or even reads a key: the trees descend, search and compare with their
+ * own key type, record the path, and call in here once a leaf has gained or lost a key.
+ */
+abstract class BPlusNodes<A> {
+
+    static final int DEFAULT_FANOUT = 64;
+
+    // far more levels than any tree with fanout 4 or more can reach
+    static final int MAX_DEPTH = 64;
+
+    abstract static class Node<A> {
+        final A keys;
+        int count;
+
+        Node(A keys) {
+            this.keys = keys;
+        }
+    }
+
+    static final class Leaf<A> extends Node<A> {
+        Leaf<A> prev, next;
+
+        Leaf(A keys) {
+            super(keys);
+        }
+    }
+
+    static final class Inner<A> extends Node<A> {
+        final Node<A>[] children;
+
+        Inner(A keys, int maxKeys) {
+            super(keys);
+            children = nodeArray(maxKeys + 2);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A> Node<A>[] nodeArray(int length) {
+        return (Node<A>[]) new Node<?>[length];
+    }
+
+    final int maxKeys;
+    final int minKeys;
+
+    Node<A> root;
+    // leftmost leaf, start of the leaf chain
+    Leaf<A> first;
+    int size;
+
+    // inner nodes and child positions from the root down, filled by the tree's descent, reused by every insert and remove
+    final Inner<A>[] pathNodes;
+    final int[] pathIndex = new int[MAX_DEPTH];
+
+    // the separator on its way up to the parent while nodes split
+    private final A carry;
+
+    // fanout is the most children an inner node can have
+    @SuppressWarnings("unchecked")
+    BPlusNodes(int fanout) {
+        if (fanout < 4) {
+            throw new IllegalArgumentException("Fanout must be at least 4: " + fanout);
+        }
+        this.maxKeys = fanout - 1;
+        this.minKeys = maxKeys / 2;
+        this.pathNodes = (Inner<A>[]) new Inner<?>[MAX_DEPTH];
+        this.carry = newKeys(1);
+    }
+
+    // KEY ARRAYS, the only part that depends on the key type
+    abstract A newKeys(int length);
+
+    // Drop the references in keys[from..to) so removed keys can be collected, nothing to do for primitives
+    abstract void clearKeys(A keys, int from, int to);
+
+    abstract String keyString(A keys, int i);
+
+    // one spare key slot so a node can overflow before it is split
+    Leaf<A> newLeaf() {
+        return new Leaf<>(newKeys(maxKeys + 1));
+    }
+
+    Inner<A> newInner() {
+        return new Inner<>(newKeys(maxKeys + 1), maxKeys);
+    }
+
+    // leaf at the bottom of the path the tree recorded
+    Leaf<A> leafAt(int depth) {
+        return (Leaf<A>) (depth == 0 ? root : pathNodes[depth - 1].children[pathIndex[depth - 1]]);
+    }
+
+    // Make room for a key at pos in the leaf, the tree stores the key and then calls addedToLeaf
+    void openSlot(Leaf<A> leaf, int pos) {
+        System.arraycopy(leaf.keys, pos, leaf.keys, pos + 1, leaf.count - pos);
+    }
+
+    /* Function to count the key just stored in the leaf at the bottom of the recorded path
+     * splits the leaf when it overflows, then pushes separators up while the parents overflow
+     */
+    void addedToLeaf(Leaf<A> leaf, int depth) {
+        leaf.count++;
+        size++;
+        if (leaf.count <= maxKeys) {
+            clearPath(depth);
+            return;
+        }
+
+        Node<A> left = leaf;
+        Node<A> right = splitLeaf(leaf);
+        System.arraycopy(right.keys, 0, carry, 0, 1);
+        while (depth > 0) {
+            depth--;
+            Inner<A> parent = pathNodes[depth];
+            int i = pathIndex[depth];
+            pathNodes[depth] = null;
+            insertKey(parent.keys, parent.count, i, carry, 0);
+            insertAt(parent.children, parent.count + 1, i + 1, right);
+            parent.count++;
+            if (parent.count <= maxKeys) {
+                clearPath(depth);
+                clearKeys(carry, 0, 1);
+                return;
+            }
+            // middle key moves up, the keys after it go to a new right node
+            int mid = parent.count / 2;
+            System.arraycopy(parent.keys, mid, carry, 0, 1);
+            Inner<A> sibling = newInner();
+            sibling.count = parent.count - mid - 1;
+            System.arraycopy(parent.keys, mid + 1, sibling.keys, 0, sibling.count);
+            System.arraycopy(parent.children, mid + 1, sibling.children, 0, sibling.count + 1);
+            clearKeys(parent.keys, mid, parent.count);
+            clear(parent.children, mid + 1, parent.count + 1);
+            parent.count = mid;
+            left = parent;
+            right = sibling;
+        }
+        // the root split, grow a level
+        Inner<A> newRoot = newInner();
+        System.arraycopy(carry, 0, newRoot.keys, 0, 1);
+        clearKeys(carry, 0, 1);
+        newRoot.children[0] = left;
+        newRoot.children[1] = right;
+        newRoot.count = 1;
+        root = newRoot;
+    }
+
+    // Start an empty tree with a leaf holding its first key
+    void plant(Leaf<A> leaf) {
+        leaf.count = 1;
+        root = leaf;
+        first = leaf;
+        size = 1;
+    }
+
+    // Move the upper half of an overflowing leaf to a new leaf linked in after it
+    private Leaf<A> splitLeaf(Leaf<A> leaf) {
+        Leaf<A> right = newLeaf();
+        int keep = leaf.count / 2;
+        right.count = leaf.count - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.count);
+        clearKeys(leaf.keys, keep, leaf.count);
+        leaf.count = keep;
+        right.next = leaf.next;
+        if (right.next != null) {
+            right.next.prev = right;
+        }
+        right.prev = leaf;
+        leaf.next = right;
+        return right;
+    }
+
+    /* Function to take keys[pos] out of the leaf at the bottom of the recorded path
+     * refills underfull nodes from a sibling, or merges with one and repeats one level up
+     */
+    void removeFromLeaf(Leaf<A> leaf, int pos, int depth) {
+        int used = depth;
+        removeKey(leaf.keys, leaf.count, pos);
+        leaf.count--;
+        size--;
+        if (leaf == root) {
+            if (leaf.count == 0) {
+                root = null;
+                first = null;
+            }
+            return;
+        }
+
+        Node<A> node = leaf;
+        while (depth > 0 && node.count < minKeys) {
+            depth--;
+            Inner<A> parent = pathNodes[depth];
+            int i = pathIndex[depth];
+            Node<A> leftSibling = i > 0 ? parent.children[i - 1] : null;
+            Node<A> rightSibling = i < parent.count ? parent.children[i + 1] : null;
+            if (leftSibling != null && leftSibling.count > minKeys) {
+                borrowFromLeft(parent, i, node, leftSibling);
+                break;
+            }
+            if (rightSibling != null && rightSibling.count > minKeys) {
+                borrowFromRight(parent, i, node, rightSibling);
+                break;
+            }
+            if (leftSibling != null) {
+                merge(parent, i - 1, leftSibling, node);
+            } else {
+                merge(parent, i, node, rightSibling);
+            }
+            if (parent == root) {
+                if (parent.count == 0) {
+                    // the root lost its last separator, shrink a level
+                    root = parent.children[0];
+                }
+                break;
+            }
+            node = parent;
+        }
+        clearPath(used);
+    }
+
+    // Move the last key (and child) of the left sibling into node, the sibling is children[i - 1]
+    private void borrowFromLeft(Inner<A> parent, int i, Node<A> node, Node<A> sibling) {
+        if (node instanceof Leaf) {
+            insertKey(node.keys, node.count, 0, sibling.keys, sibling.count - 1);
+            System.arraycopy(node.keys, 0, parent.keys, i - 1, 1);
+        } else {
+            Inner<A> inner = (Inner<A>) node;
+            Inner<A> from = (Inner<A>) sibling;
+            insertKey(inner.keys, inner.count, 0, parent.keys, i - 1);
+            insertAt(inner.children, inner.count + 1, 0, from.children[from.count]);
+            System.arraycopy(from.keys, from.count - 1, parent.keys, i - 1, 1);
+            from.children[from.count] = null;
+        }
+        node.count++;
+        sibling.count--;
+        clearKeys(sibling.keys, sibling.count, sibling.count + 1);
+    }
+
+    // Move the first key (and child) of the right sibling into node, the sibling is children[i + 1]
+    private void borrowFromRight(Inner<A> parent, int i, Node<A> node, Node<A> sibling) {
+        if (node instanceof Leaf) {
+            System.arraycopy(sibling.keys, 0, node.keys, node.count, 1);
+            removeKey(sibling.keys, sibling.count, 0);
+            System.arraycopy(sibling.keys, 0, parent.keys, i, 1);
+        } else {
+            Inner<A> inner = (Inner<A>) node;
+            Inner<A> from = (Inner<A>) sibling;
+            System.arraycopy(parent.keys, i, inner.keys, inner.count, 1);
+            inner.children[inner.count + 1] = from.children[0];
+            System.arraycopy(from.keys, 0, parent.keys, i, 1);
+            removeKey(from.keys, from.count, 0);
+            removeAt(from.children, from.count + 1, 0);
+        }
+        node.count++;
+        sibling.count--;
+    }
+
+    // Fold right into left, they are children[i] and children[i + 1] of parent, and drop separator i
+    private void merge(Inner<A> parent, int i, Node<A> left, Node<A> right) {
+        if (left instanceof Leaf) {
+            Leaf<A> l = (Leaf<A>) left;
+            Leaf<A> r = (Leaf<A>) right;
+            System.arraycopy(r.keys, 0, l.keys, l.count, r.count);
+            l.count += r.count;
+            l.next = r.next;
+            if (l.next != null) {
+                l.next.prev = l;
+            }
+        } else {
+            Inner<A> l = (Inner<A>) left;
+            Inner<A> r = (Inner<A>) right;
+            System.arraycopy(parent.keys, i, l.keys, l.count, 1);
+            System.arraycopy(r.keys, 0, l.keys, l.count + 1, r.count);
+            System.arraycopy(r.children, 0, l.children, l.count + 1, r.count + 1);
+            l.count += r.count + 1;
+        }
+        removeKey(parent.keys, parent.count, i);
+        removeAt(parent.children, parent.count + 1, i + 1);
+        parent.count--;
+    }
+
+    // Shift keys[pos..count) right by one and copy from[at] in at pos
+    private void insertKey(A keys, int count, int pos, A from, int at) {
+        System.arraycopy(keys, pos, keys, pos + 1, count - pos);
+        System.arraycopy(from, at, keys, pos, 1);
+    }
+
+    // Shift keys(pos..count) left by one, dropping keys[pos]
+    private void removeKey(A keys, int count, int pos) {
+        System.arraycopy(keys, pos + 1, keys, pos, count - pos - 1);
+        clearKeys(keys, count - 1, count);
+    }
+
+    // Shift a[pos..count) right by one and put value at pos
+    private static void insertAt(Object[] a, int count, int pos, Object value) {
+        System.arraycopy(a, pos, a, pos + 1, count - pos);
+        a[pos] = value;
+    }
+
+    // Shift a(pos..count) left by one, dropping a[pos]
+    private static void removeAt(Object[] a, int count, int pos) {
+        System.arraycopy(a, pos + 1, a, pos, count - pos - 1);
+        a[count - 1] = null;
+    }
+
+    private static void clear(Object[] a, int from, int to) {
+        for (int i = from; i < to; i++) {
+            a[i] = null;
+        }
+    }
+
+    // Drop the references left on the path so removed nodes can be collected
+    void clearPath(int depth) {
+        for (int i = 0; i < depth; i++) {
+            pathNodes[i] = null;
+        }
+    }
+
+    // TOSTRING (equivalents)
+    // in order, straight along the leaf chain
+    void inorder() {
+        for (Leaf<A> leaf = first; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                System.out.print(keyString(leaf.keys, i) + " ");
+            }
+        }
+    }
+
+    // node keys, then each child
+    void preorder(Node<A> node) {
+        if (node != null) {
+            for (int i = 0; i < node.count; i++) {
+                System.out.print(keyString(node.keys, i) + " ");
+            }
+            if (node instanceof Inner) {
+                for (int i = 0; i <= node.count; i++) {
+                    preorder(((Inner<A>) node).children[i]);
+                }
+            }
+        }
+    }
+
+    // each child, then node keys
+    void postorder(Node<A> node) {
+        if (node != null) {
+            if (node instanceof Inner) {
+                for (int i = 0; i <= node.count; i++) {
+                    postorder(((Inner<A>) node).children[i]);
+                }
+            }
+            for (int i = 0; i < node.count; i++) {
+                System.out.print(keyString(node.keys, i) + " ");
+            }
+        }
+    }
+}
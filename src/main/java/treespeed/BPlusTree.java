@@ -0,0 +1,336 @@
+package treespeed;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import treespeed.BPlusNodes.Inner;
+import treespeed.BPlusNodes.Leaf;
+import treespeed.BPlusNodes.Node;
+
+/*
+ * Mikey Dimucci
+ * B+ tree
+ *
+ * Every node holds up to fanout - 1 keys in one contiguous array, so a lookup touches about
+ * log_fanout(n) nodes instead of log_2(n) and each node is scanned in cache.
+ * Inner nodes only route, every key lives in a leaf, and the leaves are linked in order
+ * so inorder() is a straight walk along the leaf chain.
+ * Separator keys[i] of an inner node routes between children: every key in children[i] is < keys[i]
+ * and every key in children[i + 1] is >= keys[i]. remove does not update separators,
+ * so keys[i] need not be in the tree any more.
+ * The splits, merges and borrows live in BPlusNodes, shared with IntBPlusTree.
+ * Duplicate keys are not allowed, same as AVLTree and RedBlackTree.
+ */
+public class BPlusTree extends BinaryTree {
+
+    public static final int DEFAULT_FANOUT = BPlusNodes.DEFAULT_FANOUT;
+
+    private final BPlusNodes<String[]> nodes;
+
+    public BPlusTree() {
+        this(DEFAULT_FANOUT);
+    }
+
+    // fanout is the most children an inner node can have
+    public BPlusTree(int fanout) {
+        this.nodes = new BPlusNodes<>(fanout) {
+            @Override
+            String[] newKeys(int length) {
+                return new String[length];
+            }
+
+            @Override
+            void clearKeys(String[] keys, int from, int to) {
+                for (int i = from; i < to; i++) {
+                    keys[i] = null;
+                }
+            }
+
+            @Override
+            String keyString(String[] keys, int i) {
+                return keys[i];
+            }
+        };
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return nodes.size == 0;
+    }
+
+    // kept up to date by insert and remove, so no walk is needed
+    @Override
+    public int countNodes() {
+        return nodes.size;
+    }
+
+    @Override
+    public String search(String val) {
+        Leaf<String[]> leaf = leafFor(val);
+        if (leaf == null) {
+            return null;
+        }
+        int pos = indexOf(leaf, val);
+        return pos >= 0 ? leaf.keys[pos] : null;
+    }
+
+    @Override
+    public void insert(String key) {
+        if (nodes.root == null) {
+            Leaf<String[]> leaf = nodes.newLeaf();
+            leaf.keys[0] = key;
+            nodes.plant(leaf);
+            return;
+        }
+        int depth = descend(key);
+        Leaf<String[]> leaf = nodes.leafAt(depth);
+        int pos = indexOf(leaf, key);
+        if (pos >= 0) {
+            nodes.clearPath(depth);
+            return; // Duplicate keys are not allowed
+        }
+        pos = -pos - 1;
+        nodes.openSlot(leaf, pos);
+        leaf.keys[pos] = key;
+        nodes.addedToLeaf(leaf, depth);
+    }
+
+    @Override
+    public void remove(String key) {
+        if (nodes.root == null) {
+            return;
+        }
+        int depth = descend(key);
+        Leaf<String[]> leaf = nodes.leafAt(depth);
+        int pos = indexOf(leaf, key);
+        if (pos < 0) {
+            nodes.clearPath(depth);
+            return;
+        }
+        nodes.removeFromLeaf(leaf, pos, depth);
+    }
+
+    // Build the tree from a list of keys in O(n), replacing the current contents
+    // leaves are filled level by level with the keys spread evenly, so every node is at least half full
+    @Override
+    public void buildFromSorted(String[] keys) {
+        String[] sorted = distinct(inOrder(keys));
+        nodes.size = sorted.length;
+        nodes.root = null;
+        nodes.first = null;
+        if (sorted.length == 0) {
+            return;
+        }
+        int count = groups(sorted.length, nodes.maxKeys);
+        Node<String[]>[] level = BPlusNodes.nodeArray(count);
+        String[] lowest = new String[count];
+        Leaf<String[]> previous = null;
+        int from = 0;
+        for (int g = 0; g < count; g++) {
+            int to = (int) ((long) sorted.length * (g + 1) / count);
+            Leaf<String[]> leaf = nodes.newLeaf();
+            leaf.count = to - from;
+            System.arraycopy(sorted, from, leaf.keys, 0, leaf.count);
+            leaf.prev = previous;
+            if (previous != null) {
+                previous.next = leaf;
+            } else {
+                nodes.first = leaf;
+            }
+            previous = leaf;
+            level[g] = leaf;
+            lowest[g] = sorted[from];
+            from = to;
+        }
+        while (level.length > 1) {
+            int parents = groups(level.length, nodes.maxKeys + 1);
+            Node<String[]>[] up = BPlusNodes.nodeArray(parents);
+            String[] upLowest = new String[parents];
+            from = 0;
+            for (int g = 0; g < parents; g++) {
+                int to = (int) ((long) level.length * (g + 1) / parents);
+                Inner<String[]> inner = nodes.newInner();
+                inner.count = to - from - 1;
+                System.arraycopy(level, from, inner.children, 0, to - from);
+                System.arraycopy(lowest, from + 1, inner.keys, 0, inner.count);
+                up[g] = inner;
+                upLowest[g] = lowest[from];
+                from = to;
+            }
+            level = up;
+            lowest = upLowest;
+        }
+        nodes.root = level[0];
+    }
+
+    // number of nodes needed to hold n items at most capacity per node
+    private static int groups(int n, int capacity) {
+        return (n + capacity - 1) / capacity;
+    }
+
+    // ORDERED ACCESS
+    @Override
+    public String floor(String val) {
+        Leaf<String[]> leaf = leafFor(val);
+        if (leaf == null) {
+            return null;
+        }
+        int pos = indexOf(leaf, val);
+        if (pos >= 0) {
+            return leaf.keys[pos];
+        }
+        // the key just below the insertion point, maybe at the end of the previous leaf
+        pos = -pos - 2;
+        if (pos >= 0) {
+            return leaf.keys[pos];
+        }
+        return leaf.prev == null ? null : leaf.prev.keys[leaf.prev.count - 1];
+    }
+
+    @Override
+    public String ceiling(String val) {
+        Leaf<String[]> leaf = leafFor(val);
+        if (leaf == null) {
+            return null;
+        }
+        int pos = indexOf(leaf, val);
+        if (pos < 0) {
+            pos = -pos - 1;
+        }
+        if (pos < leaf.count) {
+            return leaf.keys[pos];
+        }
+        return leaf.next == null ? null : leaf.next.keys[0];
+    }
+
+    // One descent to the first leaf entry, then straight along the leaf chain
+    @Override
+    protected Iterator<String> range(String from, String to) {
+        Leaf<String[]> leaf = from == null ? nodes.first : leafFor(from);
+        int pos = 0;
+        if (leaf != null && from != null) {
+            pos = indexOf(leaf, from);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+        }
+        return new LeafIterator(leaf, pos, to);
+    }
+
+    // Walks the leaf chain from leaf.keys[pos] until a key reaches to
+    private static final class LeafIterator implements Iterator<String> {
+        private Leaf<String[]> leaf;
+        private int pos;
+        private final String to;
+
+        LeafIterator(Leaf<String[]> leaf, int pos, String to) {
+            this.leaf = leaf;
+            this.pos = pos;
+            this.to = to;
+            skipEmpty();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null && (to == null || leaf.keys[pos].compareTo(to) < 0);
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String key = leaf.keys[pos++];
+            skipEmpty();
+            return key;
+        }
+
+        // move on to the next leaf once this one is used up
+        private void skipEmpty() {
+            while (leaf != null && pos == leaf.count) {
+                leaf = leaf.next;
+                pos = 0;
+            }
+        }
+    }
+
+    // Leaf that holds key if it is in the tree, without recording the path
+    private Leaf<String[]> leafFor(String key) {
+        Node<String[]> node = nodes.root;
+        if (node == null) {
+            return null;
+        }
+        while (node instanceof Inner) {
+            node = ((Inner<String[]>) node).children[childIndex(node, key)];
+        }
+        return (Leaf<String[]>) node;
+    }
+
+    // Walk from the root to the leaf for key, recording the path, returns its depth
+    private int descend(String key) {
+        int depth = 0;
+        Node<String[]> node = nodes.root;
+        while (node instanceof Inner) {
+            Inner<String[]> inner = (Inner<String[]>) node;
+            int i = childIndex(inner, key);
+            nodes.pathNodes[depth] = inner;
+            nodes.pathIndex[depth] = i;
+            depth++;
+            node = inner.children[i];
+        }
+        return depth;
+    }
+
+    // Child to follow for key: the number of separators that are <= key
+    private static int childIndex(Node<String[]> node, String key) {
+        int lo = 0;
+        int hi = node.count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (key.compareTo(node.keys[mid]) < 0) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    // Position of key in the node, or -(insertion point) - 1, same contract as Arrays.binarySearch
+    private static int indexOf(Node<String[]> node, String key) {
+        int lo = 0;
+        int hi = node.count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = key.compareTo(node.keys[mid]);
+            if (cmp == 0) {
+                return mid;
+            }
+            if (cmp < 0) {
+                hi = mid - 1;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return -lo - 1;
+    }
+
+    // TOSTRING (equivalents)
+    // in order, straight along the leaf chain
+    @Override
+    public void inorder() {
+        nodes.inorder();
+    }
+
+    // node keys, then each child
+    @Override
+    public void preorder() {
+        nodes.preorder(nodes.root);
+    }
+
+    // each child, then node keys
+    @Override
+    public void postorder() {
+        nodes.postorder(nodes.root);
+    }
+}
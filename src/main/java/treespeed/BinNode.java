@@ -0,0 +1,82 @@
+package treespeed;
+
+/**
+ * Node for a binary tree of strings.
+ *
+ * @author (lj)
+ * @version (2023)
+ */
+public class BinNode
+{
+    private String data;
+    // the start of data packed into a long, see prefix(String)
+    private long prefix;
+    private BinNode left;
+    private BinNode right;
+    
+    public BinNode(){
+        data = "";
+        left = null;
+        right = null;
+    }
+    
+    public BinNode(String d){
+        data = d;
+        prefix = prefix(d);
+        left = null;
+        right = null;
+    }
+    
+    public void setData(String d){
+        this.data = d;
+        this.prefix = prefix(d);
+    }
+    public String getData(){
+        return this.data;
+    }
+    public void setLeft(BinNode l){
+        this.left = l;
+    }
+    public BinNode getLeft(){
+        return this.left;
+    }
+    public void setRight(BinNode r){
+        this.right = r;
+    }
+    public BinNode getRight(){
+        return this.right;
+    }
+
+    /* Function to compare a key with this node's data, same sign as key.compareTo(getData())
+     * keyPrefix is prefix(key), worked out once per search instead of once per node.
+     * Most nodes differ from the key in their first 8 chars, so they cost one long compare,
+     * the String compare only runs when the prefixes tie
+     */
+    public int compare(String key, long keyPrefix){
+        if (keyPrefix != this.prefix) {
+            return Long.compareUnsigned(keyPrefix, this.prefix);
+        }
+        return key.compareTo(this.data);
+    }
+
+    /* Function to pack the first 8 chars of a key into a long, one byte each, first char highest
+     * Ordered the same way as the keys (compared unsigned): a char from 0xFF up is stored as 0xFF
+     * and ends the prefix, so two prefixes only differ where the keys really differ.
+     * Shorter keys are padded with zeros
+     */
+    public static long prefix(String key){
+        long prefix = 0;
+        int n = Math.min(key.length(), 8);
+        int i = 0;
+        for (; i < n; i++) {
+            char c = key.charAt(i);
+            if (c >= 0xFF) {
+                prefix = (prefix << 8) | 0xFF;
+                i++;
+                break;
+            }
+            prefix = (prefix << 8) | c;
+        }
+        return prefix << (8 * (8 - i));
+    }
+}
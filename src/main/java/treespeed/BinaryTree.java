@@ -0,0 +1,499 @@
+package treespeed;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An ordered binary tree class.
+ * TO DO:
+ * 1) Complete the methods indicated.
+ * 2) Add a remove method that eliminates the node of a given value
+ *    (parameter = data to find and kill; return = void)
+ *
+ * @author (Mikey Dimucci)
+ * @version (2024)
+ */
+public class BinaryTree implements Iterable<String>
+{
+    private BinNode root;
+
+    // counters for the operations on this tree, only counted with -Dtreespeed.metrics=true
+    protected final TreeMetrics metrics = new TreeMetrics();
+    
+    /**
+     * default constructor 
+     * root should be null by default
+     */
+    public BinaryTree() {
+        this.root = null;
+    }
+
+    /* The read side (search, counting, traversals) goes through getRoot,
+     * so a subclass that keeps its root somewhere else only overrides getRoot and setRoot
+     */
+    public BinNode getRoot(){
+        return this.root;
+    }
+
+    public TreeMetrics getMetrics(){
+        return this.metrics;
+    }
+
+    /* Lets the balanced subclasses publish the root after a rotation */
+    protected void setRoot(BinNode root){
+        this.root = root;
+    }
+    
+     /* Function to check if tree is empty */
+    public boolean isEmpty()
+    {
+        return getRoot() == null;
+    }
+
+     /* Functions to insert data */
+    public void insert(String data)
+    {
+         BinNode node = new BinNode(data);
+         metrics.operation();
+         if (this.root == null) {
+              this.root = node;
+              return;
+         }
+         // Walk down with a loop instead of recursion so a sorted feed, which
+         // turns this tree into a linked list, cannot overflow the stack
+         BinNode current = this.root;
+         long prefix = BinNode.prefix(data);
+         int depth = 1;
+         while (true) {
+              metrics.visit();
+              metrics.comparison();
+              if (current.compare(data, prefix) < 0) {
+                   if (current.getLeft() == null) {
+                        current.setLeft(node);
+                        metrics.depth(depth + 1);
+                        return;
+                   }
+                   current = current.getLeft();
+              }
+              else {
+                   if (current.getRight() == null) {
+                        current.setRight(node);
+                        metrics.depth(depth + 1);
+                        return;
+                   }
+                   current = current.getRight();
+              }
+              depth++;
+         }
+    }     
+
+    /* Function to build a perfectly balanced tree from a list of keys in O(n)
+     * Replaces whatever the tree held before
+     * Keys that are already in order are used as they are, anything else is sorted first
+     */
+    public void buildFromSorted(String[] keys)
+    {
+         String[] sorted = inOrder(keys);
+         this.root = buildFromSorted(sorted, 0, sorted.length - 1);
+    }
+
+    /* Function to build the subtree for keys[lo..hi], the middle key becomes the root */
+    private BinNode buildFromSorted(String[] keys, int lo, int hi)
+    {
+         if (lo > hi) {
+              return null;
+         }
+         int mid = (lo + hi) >>> 1;
+         BinNode node = new BinNode(keys[mid]);
+         node.setLeft(buildFromSorted(keys, lo, mid - 1));
+         node.setRight(buildFromSorted(keys, mid + 1, hi));
+         return node;
+    }
+
+    /* Function to save the keys to a binary snapshot file, see TreeSnapshot */
+    public void saveSnapshot(String filename) throws IOException
+    {
+         TreeSnapshot.save(this, filename);
+    }
+
+    /* Function to replace the contents with the keys of a snapshot file in O(n), see TreeSnapshot */
+    public void loadSnapshot(String filename) throws IOException
+    {
+         TreeSnapshot.load(this, filename);
+    }
+
+    /* Function to check the order of the keys, returns them as is or a sorted copy */
+    protected static String[] inOrder(String[] keys)
+    {
+         for (int i = 1; i < keys.length; i++) {
+              if (keys[i - 1].compareTo(keys[i]) > 0) {
+                   String[] sorted = keys.clone();
+                   Arrays.sort(sorted);
+                   return sorted;
+              }
+         }
+         return keys;
+    }
+
+    /* Function to get the keys sorted without repeats for the parallel builds
+     * Keys that are already in order are used as they are, anything else is copied and
+     * sorted with Arrays.parallelSort on every core
+     */
+    protected static String[] parallelSorted(String[] keys)
+    {
+         for (int i = 1; i < keys.length; i++) {
+              if (keys[i - 1].compareTo(keys[i]) > 0) {
+                   String[] sorted = keys.clone();
+                   Arrays.parallelSort(sorted);
+                   return distinct(sorted);
+              }
+         }
+         return distinct(keys);
+    }
+
+    /* Function to drop repeated keys from a sorted array, returns it as is when there are none */
+    protected static String[] distinct(String[] sorted)
+    {
+         int count = sorted.length == 0 ? 0 : 1;
+         for (int i = 1; i < sorted.length; i++) {
+              if (!sorted[i].equals(sorted[i - 1])) {
+                   count++;
+              }
+         }
+         if (count == sorted.length) {
+              return sorted;
+         }
+         String[] unique = new String[count];
+         int n = 0;
+         for (int i = 0; i < sorted.length; i++) {
+              if (i == 0 || !sorted[i].equals(sorted[i - 1])) {
+                   unique[n++] = sorted[i];
+              }
+         }
+         return unique;
+    }
+
+    /* Function to count number of nodes
+     * walks the nodes with the in order iterator, no recursion, so a degenerate tree cannot overflow the stack
+     */
+    public int countNodes()
+    {
+         int count = 0;
+         for (Iterator<String> it = new RangeIterator(getRoot(), null, null); it.hasNext(); it.next()) {
+              count++;
+         }
+         return count;
+    }
+
+    /* Function to search for an element */
+    public String search(String val) {
+        metrics.operation();
+        BinNode node = find(val);
+        return node == null ? null : node.getData();
+    }
+
+    /* Function to find the node holding a value
+     * Walks down from the root without recursion, so hits and misses both cost O(height)
+     * The balanced subclasses keep their nodes under the same root, so they share this walk
+     */
+    protected BinNode find(String val) {
+        BinNode r = getRoot();
+        long prefix = BinNode.prefix(val);
+        int depth = 0;
+        while (r != null) {
+            depth++;
+            metrics.visit();
+            metrics.comparison();
+            int cmp = r.compare(val, prefix);
+            if (cmp == 0) {
+                metrics.depth(depth);
+                return r;
+            }
+            r = cmp < 0 ? r.getLeft() : r.getRight();
+        }
+        metrics.depth(depth);
+        return null;
+    }
+
+    // ORDERED ACCESS
+    /* Function to find the largest key less than or equal to val, or null when there is none */
+    public String floor(String val) {
+        String best = null;
+        BinNode r = getRoot();
+        long prefix = BinNode.prefix(val);
+        while (r != null) {
+            int cmp = r.compare(val, prefix);
+            if (cmp == 0) {
+                return r.getData();
+            }
+            if (cmp < 0) {
+                r = r.getLeft();
+            } else {
+                best = r.getData();
+                r = r.getRight();
+            }
+        }
+        return best;
+    }
+
+    /* Function to find the smallest key greater than or equal to val, or null when there is none */
+    public String ceiling(String val) {
+        String best = null;
+        BinNode r = getRoot();
+        long prefix = BinNode.prefix(val);
+        while (r != null) {
+            int cmp = r.compare(val, prefix);
+            if (cmp == 0) {
+                return r.getData();
+            }
+            if (cmp > 0) {
+                r = r.getRight();
+            } else {
+                best = r.getData();
+                r = r.getLeft();
+            }
+        }
+        return best;
+    }
+
+    /* Function to get the number of keys
+     * the trees that keep a count override this in O(1), here it is countNodes
+     */
+    public int size() {
+        return countNodes();
+    }
+
+    /* Function to count the keys less than val
+     * O(n) walk here, AVLTree and RedBlackTree keep subtree sizes and do it in O(log n)
+     */
+    public int rank(String val) {
+        int rank = 0;
+        for (Iterator<String> it = range(null, val); it.hasNext(); it.next()) {
+            rank++;
+        }
+        return rank;
+    }
+
+    /* Function to get the key with index keys below it, counting from 0
+     * O(n) walk here, AVLTree and RedBlackTree keep subtree sizes and do it in O(log n)
+     */
+    public String select(int index) {
+        if (index >= 0) {
+            Iterator<String> it = iterator();
+            for (int i = 0; it.hasNext(); i++) {
+                String key = it.next();
+                if (i == index) {
+                    return key;
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+    }
+
+    /* Function to iterate over every key in order
+     * No recursion: only the path to the next key is kept, so memory is O(height)
+     * The tree must not change while the iterator is in use
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return range(null, null);
+    }
+
+    /* Function to iterate over the keys from from (inclusive) up to to (exclusive)
+     * Seeks the first key in O(log n) and then walks lazily, so k keys cost O(log n + k)
+     */
+    public Iterator<String> subRange(String from, String to) {
+        return range(from, to);
+    }
+
+    /* Spliterator over the keys in order, for streams */
+    @Override
+    public Spliterator<String> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL);
+    }
+
+    /* Function to stream the keys in order */
+    public Stream<String> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /* Keys in [from, to) in order, a null bound is open
+     * iterator and subRange both come here, a subclass with its own nodes overrides only this
+     */
+    protected Iterator<String> range(String from, String to) {
+        return new RangeIterator(getRoot(), from, to);
+    }
+
+    /* In order walk with an explicit stack
+     * the stack holds the nodes whose key is still to come and whose right subtree is not started
+     */
+    private static final class RangeIterator implements Iterator<String> {
+        private BinNode[] stack = new BinNode[32];
+        private int depth;
+        private final String to;
+
+        RangeIterator(BinNode root, String from, String to) {
+            this.to = to;
+            // path to the first key >= from, only the nodes at or above from are kept
+            BinNode r = root;
+            while (r != null) {
+                if (from == null || r.getData().compareTo(from) >= 0) {
+                    push(r);
+                    r = r.getLeft();
+                } else {
+                    r = r.getRight();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth > 0 && (to == null || stack[depth - 1].getData().compareTo(to) < 0);
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            BinNode node = stack[--depth];
+            stack[depth] = null;
+            // the next keys are the left spine of the right subtree
+            for (BinNode r = node.getRight(); r != null; r = r.getLeft()) {
+                push(r);
+            }
+            return node.getData();
+        }
+
+        // an unbalanced tree can be as deep as it is large, so the stack grows
+        private void push(BinNode node) {
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth * 2);
+            }
+            stack[depth++] = node;
+        }
+    }
+
+    /* Function to remove a node of a given value
+     * (parameter = data to find and kill; return = void)
+     * Starting at the root, find the deepest and rightmost node in the binary tree and the node which we want to delete. 
+     * Replace the deepest rightmost node’s data with the node to be deleted. 
+     * Then delete the deepest rightmost node.
+     * Source: https://www.geeksforgeeks.org/deletion-binary-tree/
+     * Debugged with github copilot 
+     */
+
+    /* Function to remove a node of a given value */
+    public void remove(String data) {
+        // Find the node and its parent with a loop, one comparison per level
+        metrics.operation();
+        BinNode parent = null;
+        BinNode node = this.root;
+        long prefix = BinNode.prefix(data);
+        int depth = 0;
+        while (node != null) {
+            depth++;
+            metrics.visit();
+            metrics.comparison();
+            int cmp = node.compare(data, prefix);
+            if (cmp == 0) {
+                break;
+            }
+            parent = node;
+            node = cmp < 0 ? node.getLeft() : node.getRight();
+        }
+        if (node == null) {
+            metrics.depth(depth);
+            return;
+        }
+
+        // Node with two children: copy in the inorder successor (smallest in the right subtree)
+        // and unlink the successor instead, it has no left child
+        if (node.getLeft() != null && node.getRight() != null) {
+            BinNode successorParent = node;
+            BinNode successor = node.getRight();
+            depth++;
+            metrics.visit();
+            while (successor.getLeft() != null) {
+                successorParent = successor;
+                successor = successor.getLeft();
+                depth++;
+                metrics.visit();
+            }
+            node.setData(successor.getData());
+            parent = successorParent;
+            node = successor;
+        }
+
+        metrics.depth(depth);
+
+        // Node with only one child or no child
+        BinNode child = node.getLeft() != null ? node.getLeft() : node.getRight();
+        if (parent == null) {
+            this.root = child;
+        } else if (parent.getLeft() == node) {
+            parent.setLeft(child);
+        } else {
+            parent.setRight(child);
+        }
+    }
+
+    // TOSTRING (equivalents) 
+    /* Function for inorder traversal 
+     * left root right 
+    */
+    
+    public void inorder()
+    {
+         inorder(getRoot());
+    }
+    private void inorder(BinNode r)
+    {
+         if (r != null)
+         {
+             inorder(r.getLeft());
+             System.out.print(r.getData() +" ");
+             inorder(r.getRight());
+         }
+    }
+
+    /* Function for preorder traversal
+     * root left right 
+     */
+    public void preorder()
+    {
+         preorder(getRoot());
+    }
+    private void preorder(BinNode r)
+    {
+         if (r != null)
+         {
+             System.out.print(r.getData() +" ");
+             preorder(r.getLeft());             
+             preorder(r.getRight());
+         }
+    }
+
+    /* Function for postorder traversal
+     * left right root
+     */
+    public void postorder()
+    {
+         postorder(getRoot());
+    }
+    private void postorder(BinNode r)
+    {
+         if (r != null)
+         {
+             postorder(r.getLeft());             
+             postorder(r.getRight());
+             System.out.print(r.getData() +" ");
+         }
+    }
+    }
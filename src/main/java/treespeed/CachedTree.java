@@ -0,0 +1,206 @@
+package treespeed;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Mikey Dimucci
+ * Read-through lookup cache
+ *
+ * Wraps any of the trees and remembers the answer to recent searches, hits and misses both,
+ * in a hash map of at most capacity keys, so a hot title costs one hash probe instead of a descent.
+ * insert and remove go to the tree and drop that key from the cache, buildFromSorted empties it,
+ * so a cached answer is never stale.
+ * LRU evicts the least recently searched key whenever a new one comes in.
+ * TINY_LFU keeps the same order but only lets a new key push out the least recently searched one
+ * when a small frequency sketch says it has been searched more often,
+ * so a burst of one-off lookups cannot flush the hot keys.
+ * Not thread safe, put a LockedTree around it to share it.
+ */
+public class CachedTree extends ForwardingTree {
+
+    public enum Policy {
+        LRU,
+        TINY_LFU
+    }
+
+    // stands in for "not in the tree" in the cache
+    private static final Object ABSENT = new Object();
+
+    private final int capacity;
+    private final Policy policy;
+    // search key to the tree's answer or ABSENT, in access order with the least recent first
+    private final LinkedHashMap<String, Object> cache;
+    // only for TINY_LFU
+    private final FrequencySketch sketch;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+
+    public CachedTree(BinaryTree tree, int capacity) {
+        this(tree, capacity, Policy.LRU);
+    }
+
+    public CachedTree(BinaryTree tree, int capacity, Policy policy) {
+        super(tree);
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.cache = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true);
+        this.sketch = policy == Policy.TINY_LFU ? new FrequencySketch(capacity) : null;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    // STATISTICS
+    // searches answered from the cache
+    public long getHits() {
+        return hits;
+    }
+
+    // searches that went to the tree
+    public long getMisses() {
+        return misses;
+    }
+
+    // keys pushed out to make room
+    public long getEvictions() {
+        return evictions;
+    }
+
+    // keys TINY_LFU did not let in because the key they would push out was searched more often
+    public long getRejections() {
+        return rejections;
+    }
+
+    public double getHitRate() {
+        long searches = hits + misses;
+        return searches == 0 ? 0 : (double) hits / searches;
+    }
+
+    public void resetStats() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        rejections = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d hits, %d misses, %.1f%% hit rate, %d evictions, %d rejected, %d of %d cached",
+                hits, misses, 100 * getHitRate(), evictions, rejections, cache.size(), capacity);
+    }
+
+    // LOOKUPS
+    @Override
+    public String search(String val) {
+        if (sketch != null) {
+            sketch.increment(val);
+        }
+        Object cached = cache.get(val);
+        if (cached != null) {
+            hits++;
+            return cached == ABSENT ? null : (String) cached;
+        }
+        misses++;
+        String found = tree.search(val);
+        admit(val, found == null ? ABSENT : found);
+        return found;
+    }
+
+    // Put a key in the cache, making room first when it is full
+    private void admit(String key, Object value) {
+        if (cache.size() >= capacity) {
+            Iterator<Map.Entry<String, Object>> eldest = cache.entrySet().iterator();
+            String victim = eldest.next().getKey();
+            if (sketch != null && sketch.frequency(key) <= sketch.frequency(victim)) {
+                rejections++;
+                return;
+            }
+            eldest.remove();
+            evictions++;
+        }
+        cache.put(key, value);
+    }
+
+    // WRITES, the tree changes first, then the key's cached answer goes
+    @Override
+    public void insert(String data) {
+        tree.insert(data);
+        cache.remove(data);
+    }
+
+    @Override
+    public void remove(String data) {
+        tree.remove(data);
+        cache.remove(data);
+    }
+
+    @Override
+    public void buildFromSorted(String[] keys) {
+        tree.buildFromSorted(keys);
+        cache.clear();
+    }
+
+    /* Count-min sketch of how often keys were searched, for TINY_LFU
+     * 4 rows of small counters, a key's frequency is the smallest of its 4 counters.
+     * Counters stop at 15 and all of them are halved every 10 * capacity searches,
+     * so keys that were hot a long time ago fade out
+     */
+    private static final class FrequencySketch {
+        private static final int ROWS = 4;
+        private static final int MAX_COUNT = 15;
+        // odd multipliers, one per row, so the rows hash the same key to different counters
+        private static final int[] SEEDS = { 0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F };
+
+        private final int[] counters;
+        private final int width;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            // a power of two at least as wide as the cache
+            width = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 1;
+            counters = new int[ROWS * width];
+            sampleSize = 10 * capacity;
+        }
+
+        private int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            h ^= h >>> 16;
+            return row * width + (h & (width - 1));
+        }
+
+        void increment(String key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < ROWS; row++) {
+                int i = index(hash, row);
+                if (counters[i] < MAX_COUNT) {
+                    counters[i]++;
+                }
+            }
+            if (++additions == sampleSize) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>>= 1;
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(String key) {
+            int hash = key.hashCode();
+            int min = MAX_COUNT;
+            for (int row = 0; row < ROWS; row++) {
+                min = Math.min(min, counters[index(hash, row)]);
+            }
+            return min;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package treespeed;
+
+import java.util.Arrays;
+
+/**
+ * Counting Bloom filter of strings: says "maybe" for every key added and not removed again,
+ * and "no" for almost every other key, using a few bits per key whatever the keys' length.
+ * Each key bumps k 4 bit counters, removing it takes them back down, so unlike a plain
+ * Bloom filter keys can be removed. A counter that reaches 15 stays there (it no longer
+ * knows how many keys share it), which can only leave extra "maybe" answers, never a wrong "no".
+ * Sized from the expected number of keys and the false positive rate wanted:
+ * m = -n ln(p) / ln(2)^2 counters and k = m / n ln(2) counters per key.
+ * Only remove keys that were added, removing a key that was never added breaks the "never a wrong no".
+ *
+ * @author (Mikey Dimucci)
+ * @version (2024)
+ */
+public class CountingBloomFilter
+{
+    private static final int MAX_COUNT = 15;
+    // 4 bit counters, 16 to a long
+    private static final int PER_WORD = 16;
+
+    private final long[] words;
+    private final int counters;
+    private final int hashes;
+    private long keys;
+
+    public CountingBloomFilter(int expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1) {
+            throw new IllegalArgumentException("Expected keys must be positive: " + expectedKeys);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1: " + falsePositiveRate);
+        }
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.counters = (int) Math.min(Math.max(m, PER_WORD), Integer.MAX_VALUE - PER_WORD);
+        this.hashes = Math.max(1, (int) Math.round((double) counters / expectedKeys * ln2));
+        this.words = new long[(counters + PER_WORD - 1) / PER_WORD];
+    }
+
+    public void add(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            int c = counter(hash, i);
+            int count = get(c);
+            if (count < MAX_COUNT) {
+                set(c, count + 1);
+            }
+        }
+        keys++;
+    }
+
+    /* Function to take back one add of key
+     * the key must have been added, see the class comment
+     */
+    public void remove(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            int c = counter(hash, i);
+            int count = get(c);
+            if (count > 0 && count < MAX_COUNT) {
+                set(c, count - 1);
+            }
+        }
+        keys--;
+    }
+
+    // false means the key was certainly never added (or was removed again)
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        for (int i = 0; i < hashes; i++) {
+            if (get(counter(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0);
+        keys = 0;
+    }
+
+    // keys added and not removed
+    public long getKeys() {
+        return keys;
+    }
+
+    public int getCounters() {
+        return counters;
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    // bytes taken by the counters
+    public long getBytes() {
+        return 8L * words.length;
+    }
+
+    /* Function to work out the false positive rate at the current number of keys
+     * (1 - e^(-kn/m))^k, goes above the rate asked for once there are more keys than expected
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashes * keys / counters), hashes);
+    }
+
+    /* Function to hash a key to 64 bits, FNV-1a over the chars then a final mix
+     * the two halves are the two hashes the k counters are made from
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // i-th counter of a key, double hashing: h1 + i * h2
+    private int counter(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % counters;
+    }
+
+    private int get(int c) {
+        return (int) (words[c / PER_WORD] >>> (4 * (c % PER_WORD))) & MAX_COUNT;
+    }
+
+    private void set(int c, int count) {
+        int shift = 4 * (c % PER_WORD);
+        int w = c / PER_WORD;
+        words[w] = (words[w] & ~((long) MAX_COUNT << shift)) | ((long) count << shift);
+    }
+}
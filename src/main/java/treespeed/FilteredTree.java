@@ -0,0 +1,131 @@
+package treespeed;
+
+/*
+ * Mikey Dimucci
+ * Bloom filter guard
+ *
+ * Wraps any of the trees with a CountingBloomFilter of its keys.
+ * A search the filter says "no" to returns null without touching the tree,
+ * so most misses cost a few hashes instead of a walk down to a leaf,
+ * only hits and the filter's false positives go to the tree.
+ * The filter counts every key once however often it is inserted: insert only adds a key
+ * the filter or the tree says is new, and remove only takes it out of the filter once
+ * the tree no longer has it (BinaryTree keeps duplicates), so the filter never says "no"
+ * to a key the tree holds and repeated inserts do not fill it up.
+ * Both cost an extra search of the tree, but only for keys the filter lets through.
+ * Not thread safe, put a LockedTree around it to share it.
+ */
+public class FilteredTree extends ForwardingTree {
+
+    private final CountingBloomFilter filter;
+
+    private long filtered;
+    private long passed;
+    private long falsePositives;
+
+    /* Function to put a filter in front of tree, sized for the keys it holds now
+     * (at least 64, so an empty tree still gets a usable filter) at the given false positive rate
+     */
+    public FilteredTree(BinaryTree tree, double falsePositiveRate) {
+        this(tree, Math.max(tree.size(), 64), falsePositiveRate);
+    }
+
+    public FilteredTree(BinaryTree tree, int expectedKeys, double falsePositiveRate) {
+        super(tree);
+        this.filter = new CountingBloomFilter(expectedKeys, falsePositiveRate);
+        addKeys();
+    }
+
+    // Add every key in the tree to the filter once, the keys come in order so repeats are side by side
+    private void addKeys() {
+        String previous = null;
+        for (String key : tree) {
+            if (!key.equals(previous)) {
+                filter.add(key);
+            }
+            previous = key;
+        }
+    }
+
+    public CountingBloomFilter getFilter() {
+        return filter;
+    }
+
+    // STATISTICS
+    // searches the filter answered on its own
+    public long getFiltered() {
+        return filtered;
+    }
+
+    // searches that went on to the tree
+    public long getPassed() {
+        return passed;
+    }
+
+    // searches the filter let through that the tree did not have
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    /* Function to get the false positive rate seen so far, out of the searches for keys not in the tree */
+    public double getFalsePositiveRate() {
+        long misses = filtered + falsePositives;
+        return misses == 0 ? 0 : (double) falsePositives / misses;
+    }
+
+    public void resetStats() {
+        filtered = 0;
+        passed = 0;
+        falsePositives = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d filtered, %d passed, %d false positives, %.3f%% seen false positive rate "
+                + "(%.3f%% expected), %d bytes, %.1f bits per key, %d hashes",
+                filtered, passed, falsePositives, 100 * getFalsePositiveRate(), 100 * filter.expectedFalsePositiveRate(),
+                filter.getBytes(), 8.0 * filter.getBytes() / Math.max(filter.getKeys(), 1), filter.getHashes());
+    }
+
+    // LOOKUPS
+    @Override
+    public String search(String val) {
+        if (!filter.mightContain(val)) {
+            filtered++;
+            return null;
+        }
+        passed++;
+        String found = tree.search(val);
+        if (found == null) {
+            falsePositives++;
+        }
+        return found;
+    }
+
+    // WRITES
+    @Override
+    public void insert(String data) {
+        if (!filter.mightContain(data) || tree.search(data) == null) {
+            filter.add(data);
+        }
+        tree.insert(data);
+    }
+
+    // a key the tree never had must not take counts from the keys it has
+    @Override
+    public void remove(String data) {
+        if (filter.mightContain(data) && tree.search(data) != null) {
+            tree.remove(data);
+            if (tree.search(data) == null) {
+                filter.remove(data);
+            }
+        }
+    }
+
+    @Override
+    public void buildFromSorted(String[] keys) {
+        tree.buildFromSorted(keys);
+        filter.clear();
+        addKeys();
+    }
+}
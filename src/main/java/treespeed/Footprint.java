@@ -0,0 +1,204 @@
+package treespeed;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Memory report: builds every tree at count keys and prints the bytes each tree keeps per key,
+ * the bytes allocated while building it and while running a mixed workload on it,
+ * the garbage collections both caused, and how many keys fit in a GB.
+ * e.g. "java -cp target/classes treespeed.Footprint 1000000"
+ *
+ * Retained bytes are heap used after a full GC with the tree alive, minus heap used before it was
+ * built, plus any direct buffer memory (OffHeapRedBlackTree lives there). The keys are made first
+ * and are not part of a tree's own bytes; the keys per GB line adds them back in.
+ * Allocated bytes come from the HotSpot per-thread allocation counter, GC time is the collectors'
+ * own total. Run with a fixed heap (-Xms = -Xmx) so heap resizing does not get in the way.
+ *
+ * @author (Mikey Dimucci)
+ * @version (2024)
+ */
+public class Footprint
+{
+    // seed for the keys and the workload so runs can be compared
+    private static final long SEED = 42L;
+
+    private static final long GB = 1L << 30;
+
+    // the tree being measured, held here rather than in a local because the JIT is free to drop a
+    // local it sees no more use of, which would free the tree in the middle of a measurement
+    private static Object live;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private Footprint() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        KeyGenerator generator = new KeyGenerator(SEED);
+
+        // string keyed trees, the titles are shared by every tree and counted once
+        long before = retained();
+        String[] titles = generator.titles(count, KeyGenerator.Order.RANDOM);
+        // titles that are not in the trees, for the misses and inserts of the workload
+        String[] others = generator.missingTitles(count);
+        long titleBytes = (retained() - before) / 2;
+        System.out.println(count + " keys, " + String.format("%.1f", (double) titleBytes / count) + " bytes per title\n");
+        // a fresh set of empty trees every time, so the ones already measured can be collected
+        for (int k = 0; k < Main.newTrees().length; k++) {
+            int kind = k;
+            String name = Main.name(Main.newTrees()[kind]);
+            Supplier<BinaryTree> build = () -> {
+                BinaryTree tree = Main.newTrees()[kind];
+                for (String title : titles) {
+                    tree.insert(title);
+                }
+                return tree;
+            };
+            Consumer<BinaryTree> workload = tree -> {
+                Random random = new Random(SEED);
+                for (int i = 0; i < count; i++) {
+                    int roll = random.nextInt(4);
+                    String key = (roll & 1) == 0 ? titles[random.nextInt(count)] : others[random.nextInt(count)];
+                    if (roll < 2) {
+                        tree.search(key);
+                    } else if (roll == 2) {
+                        tree.remove(key);
+                    } else {
+                        tree.insert(key);
+                    }
+                }
+            };
+            measure(name, count, titleBytes / (double) count, build, workload);
+        }
+
+        // int keyed trees, the keys live inside the nodes
+        int[] keys = generator.ints(count, KeyGenerator.Order.RANDOM);
+        measureInts("int AVL tree", count, keys, IntAVLTree::new);
+        measureInts("off-heap RedBlack tree", count, keys, OffHeapRedBlackTree::new);
+        measureInts("int B+ tree", count, keys, IntBPlusTree::new);
+    }
+
+    /* Function to measure an int keyed tree with the same mixed workload, odd numbers are never stored */
+    private static void measureInts(String name, int count, int[] keys, Supplier<IntTree> newTree)
+            throws InterruptedException {
+        Supplier<IntTree> build = () -> {
+            IntTree tree = newTree.get();
+            for (int key : keys) {
+                tree.insert(key);
+            }
+            return tree;
+        };
+        Consumer<IntTree> workload = tree -> {
+            Random random = new Random(SEED);
+            for (int i = 0; i < count; i++) {
+                int roll = random.nextInt(4);
+                int key = keys[random.nextInt(count)] + (roll & 1);
+                if (roll < 2) {
+                    tree.search(key);
+                } else if (roll == 2) {
+                    tree.remove(key);
+                } else {
+                    tree.insert(key);
+                }
+            }
+        };
+        measure(name, count, 0, build, workload);
+    }
+
+    /* Function to build one tree, run the workload on it and print the report
+     * keyBytes is what each key costs outside the tree
+     */
+    private static <T> void measure(String name, int count, double keyBytes, Supplier<T> build, Consumer<T> workload)
+            throws InterruptedException {
+        long heapBefore = retained();
+
+        long allocated = allocatedBytes();
+        long[] gc = gcTotals();
+        T tree = build.get();
+        live = tree;
+        long buildAllocated = allocatedBytes() - allocated;
+        long[] buildGc = since(gc);
+
+        long treeBytes = retained() - heapBefore;
+        double bytesPerKey = (double) treeBytes / count;
+
+        allocated = allocatedBytes();
+        gc = gcTotals();
+        workload.accept(tree);
+        long workloadAllocated = allocatedBytes() - allocated;
+        long[] workloadGc = since(gc);
+        // let go of the tree and collect it here, so the next measurement starts from a heap without it
+        live = null;
+        tree = null;
+        retained();
+
+        System.out.println("Footprint of " + name + ":");
+        System.out.println(" Retained: " + treeBytes + " bytes, " + String.format("%.1f", bytesPerKey) + " bytes per key");
+        System.out.println(" Allocated during build: " + bytes(buildAllocated));
+        System.out.println(" Allocated during mixed workload: " + bytes(workloadAllocated));
+        System.out.println(" GC during build: " + buildGc[0] + " collections, " + buildGc[1] + " ms");
+        System.out.println(" GC during mixed workload: " + workloadGc[0] + " collections, " + workloadGc[1] + " ms");
+        System.out.println(" Keys per GB: " + (long) (GB / (bytesPerKey + keyBytes)));
+        System.out.println("");
+    }
+
+    /* Function to get the heap in use after a full collection, plus direct buffers
+     * A full collection leaves the eden empty, so it is left out: straight after the collection
+     * this thread takes a fresh allocation buffer from it, which would show up as used
+     */
+    private static long retained() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && !pool.getName().contains("Eden")) {
+                used += pool.getUsage().getUsed();
+            }
+        }
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                used += pool.getMemoryUsed();
+            }
+        }
+        return used;
+    }
+
+    // bytes this thread has allocated so far, -1 when the JVM does not count them
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static String bytes(long allocated) {
+        return allocated < 0 ? "not available on this JVM" : allocated + " bytes";
+    }
+
+    // collections and milliseconds spent in them so far, over every collector
+    private static long[] gcTotals() {
+        long collections = 0;
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collections += Math.max(collector.getCollectionCount(), 0);
+            millis += Math.max(collector.getCollectionTime(), 0);
+        }
+        return new long[] { collections, millis };
+    }
+
+    private static long[] since(long[] start) {
+        long[] now = gcTotals();
+        return new long[] { now[0] - start[0], now[1] - start[1] };
+    }
+}
@@ -0,0 +1,112 @@
+package treespeed;
+
+import java.util.Iterator;
+
+/*
+ * Mikey Dimucci
+ * Forwarding wrapper
+ *
+ * Base for the trees that wrap another one (CachedTree, FilteredTree, LoggedTree, LockedTree).
+ * Every method goes straight to the wrapped tree, so a wrapper only overrides the few it changes
+ * and keeps the wrapped tree's own size, rank and select instead of BinaryTree's O(n) walks.
+ * The wrapper's own root stays empty, the wrapped tree does the counting.
+ */
+public abstract class ForwardingTree extends BinaryTree {
+
+    protected final BinaryTree tree;
+
+    protected ForwardingTree(BinaryTree tree) {
+        this.tree = tree;
+    }
+
+    // the tree behind the wrapper
+    public BinaryTree getTree() {
+        return tree;
+    }
+
+    @Override
+    public BinNode getRoot() {
+        return tree.getRoot();
+    }
+
+    @Override
+    public TreeMetrics getMetrics() {
+        return tree.getMetrics();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return tree.isEmpty();
+    }
+
+    @Override
+    public int countNodes() {
+        return tree.countNodes();
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    @Override
+    public String search(String val) {
+        return tree.search(val);
+    }
+
+    @Override
+    public int rank(String val) {
+        return tree.rank(val);
+    }
+
+    @Override
+    public String select(int index) {
+        return tree.select(index);
+    }
+
+    @Override
+    public String floor(String val) {
+        return tree.floor(val);
+    }
+
+    @Override
+    public String ceiling(String val) {
+        return tree.ceiling(val);
+    }
+
+    @Override
+    protected Iterator<String> range(String from, String to) {
+        return tree.range(from, to);
+    }
+
+    @Override
+    public void insert(String data) {
+        tree.insert(data);
+    }
+
+    @Override
+    public void remove(String data) {
+        tree.remove(data);
+    }
+
+    @Override
+    public void buildFromSorted(String[] keys) {
+        tree.buildFromSorted(keys);
+    }
+
+    // TOSTRING (equivalents)
+    @Override
+    public void inorder() {
+        tree.inorder();
+    }
+
+    @Override
+    public void preorder() {
+        tree.preorder();
+    }
+
+    @Override
+    public void postorder() {
+        tree.postorder();
+    }
+}
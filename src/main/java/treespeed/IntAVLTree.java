@@ -0,0 +1,311 @@
+package treespeed;
+
+import java.util.Arrays;
+
+/*
+ * Mikey Dimucci
+ * AVL tree for int keys with no node objects
+ *
+ * Node i lives at index i of the parallel arrays keys, left, right and height,
+ * so a node costs 13 bytes instead of an object header plus references,
+ * and walking down the tree reads from a few flat arrays.
+ * Index 0 is the empty tree (height 0), so children never need null checks.
+ * Removed slots go on a free list threaded through left and are reused by the next insert,
+ * so once the arrays are big enough insert and remove allocate nothing.
+ */
+public class IntAVLTree implements IntTree {
+
+    // index that stands for "no node"
+    private static final int NIL = 0;
+
+    // Deepest an AVL tree can get: height h needs at least fib(h + 2) - 1 nodes, far more than fit in an int index at 64
+    private static final int MAX_HEIGHT = 64;
+
+    private int[] keys;
+    private int[] left;
+    private int[] right;
+    private byte[] height;
+
+    private int root = NIL;
+    private int size;
+    // first slot that has never been used
+    private int next = 1;
+    // head of the free list of removed slots
+    private int free = NIL;
+
+    // Nodes from the root down to the current one, reused by every insert and remove
+    private final int[] path = new int[MAX_HEIGHT];
+
+    public IntAVLTree() {
+        this(16);
+    }
+
+    // capacity is the number of keys the tree can hold before its arrays grow
+    public IntAVLTree(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + capacity);
+        }
+        keys = new int[capacity + 1];
+        left = new int[capacity + 1];
+        right = new int[capacity + 1];
+        height = new byte[capacity + 1];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == NIL;
+    }
+
+    // kept up to date by insert and remove, so no walk is needed
+    @Override
+    public int countNodes() {
+        return size;
+    }
+
+    // number of keys the tree can hold before its arrays grow
+    public int getCapacity() {
+        return keys.length - 1;
+    }
+
+    @Override
+    public boolean search(int key) {
+        int node = root;
+        while (node != NIL) {
+            int k = keys[node];
+            if (key == k) {
+                return true;
+            }
+            node = key < k ? left[node] : right[node];
+        }
+        return false;
+    }
+
+    // Iterative: the nodes on the way down go on the path stack and are rebalanced on the way back up
+    @Override
+    public void insert(int key) {
+        if (root == NIL) {
+            root = allocate(key);
+            return;
+        }
+        int depth = 0;
+        int node = root;
+        while (true) {
+            path[depth++] = node;
+            int k = keys[node];
+            if (key == k) {
+                return; // Duplicate keys are not allowed
+            }
+            if (key < k) {
+                if (left[node] == NIL) {
+                    int child = allocate(key);
+                    left[node] = child;
+                    break;
+                }
+                node = left[node];
+            } else {
+                if (right[node] == NIL) {
+                    int child = allocate(key);
+                    right[node] = child;
+                    break;
+                }
+                node = right[node];
+            }
+        }
+        retrace(depth);
+    }
+
+    @Override
+    public void remove(int key) {
+        int depth = 0;
+        int node = root;
+        while (node != NIL) {
+            path[depth++] = node;
+            int k = keys[node];
+            if (key == k) {
+                break;
+            }
+            node = key < k ? left[node] : right[node];
+        }
+        if (node == NIL) {
+            return;
+        }
+
+        // Node with two children: copy in the inorder successor and remove the successor instead
+        if (left[node] != NIL && right[node] != NIL) {
+            int successor = right[node];
+            path[depth++] = successor;
+            while (left[successor] != NIL) {
+                successor = left[successor];
+                path[depth++] = successor;
+            }
+            keys[node] = keys[successor];
+            node = successor;
+        }
+
+        // Node with only one child or no child, splice it out
+        int child = left[node] == NIL ? right[node] : left[node];
+        depth--;
+        replaceChild(depth == 0 ? NIL : path[depth - 1], node, child);
+        release(node);
+
+        retrace(depth);
+    }
+
+    // Walk back up the path stack, rebalancing each ancestor
+    // Stops early once a subtree comes out the same height it went in
+    private void retrace(int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            int node = path[i];
+            int oldHeight = height[node];
+            int subtree = rebalance(node);
+            if (subtree != node) {
+                replaceChild(i == 0 ? NIL : path[i - 1], node, subtree);
+            }
+            if (height[subtree] == oldHeight) {
+                return;
+            }
+        }
+    }
+
+    // Restore the AVL property at node after one of its subtrees changed height
+    private int rebalance(int node) {
+        setHeight(node);
+        int balance = height[left[node]] - height[right[node]];
+        if (balance > 1) {
+            int l = left[node];
+            // Left Right Case
+            if (height[left[l]] < height[right[l]]) {
+                left[node] = rotateLeft(l);
+            }
+            // Left Left Case
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            int r = right[node];
+            // Right Left Case
+            if (height[right[r]] < height[left[r]]) {
+                right[node] = rotateRight(r);
+            }
+            // Right Right Case
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    // Update the height of the node
+    private void setHeight(int node) {
+        height[node] = (byte) (1 + Math.max(height[left[node]], height[right[node]]));
+    }
+
+    // Perform a left rotation
+    private int rotateLeft(int y) {
+        int x = right[y];
+        right[y] = left[x];
+        left[x] = y;
+        setHeight(y);
+        setHeight(x);
+        return x;
+    }
+
+    // Perform a right rotation
+    private int rotateRight(int x) {
+        int y = left[x];
+        left[x] = right[y];
+        right[y] = x;
+        setHeight(x);
+        setHeight(y);
+        return y;
+    }
+
+    // Replace oldChild with newChild under parent, or at the root when parent is NIL
+    private void replaceChild(int parent, int oldChild, int newChild) {
+        if (parent == NIL) {
+            root = newChild;
+        } else if (left[parent] == oldChild) {
+            left[parent] = newChild;
+        } else {
+            right[parent] = newChild;
+        }
+    }
+
+    // Take a slot from the free list, or the next unused one, growing the arrays when full
+    private int allocate(int key) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left[node];
+        } else {
+            if (next == keys.length) {
+                grow();
+            }
+            node = next++;
+        }
+        keys[node] = key;
+        left[node] = NIL;
+        right[node] = NIL;
+        height[node] = 1;
+        size++;
+        return node;
+    }
+
+    // Put a slot back on the free list
+    private void release(int node) {
+        left[node] = free;
+        right[node] = NIL;
+        height[node] = 0;
+        free = node;
+        size--;
+    }
+
+    // Double the arrays, the only allocation after construction
+    private void grow() {
+        int capacity = keys.length * 2;
+        if (capacity < 0) {
+            throw new IllegalStateException("IntAVLTree is full");
+        }
+        keys = Arrays.copyOf(keys, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        height = Arrays.copyOf(height, capacity);
+    }
+
+    // TOSTRING (equivalents)
+    // left root right
+    public void inorder() {
+        inorder(root);
+    }
+
+    private void inorder(int node) {
+        if (node != NIL) {
+            inorder(left[node]);
+            System.out.print(keys[node] + " ");
+            inorder(right[node]);
+        }
+    }
+
+    // root left right
+    public void preorder() {
+        preorder(root);
+    }
+
+    private void preorder(int node) {
+        if (node != NIL) {
+            System.out.print(keys[node] + " ");
+            preorder(left[node]);
+            preorder(right[node]);
+        }
+    }
+
+    // left right root
+    public void postorder() {
+        postorder(root);
+    }
+
+    private void postorder(int node) {
+        if (node != NIL) {
+            postorder(left[node]);
+            postorder(right[node]);
+            System.out.print(keys[node] + " ");
+        }
+    }
+}
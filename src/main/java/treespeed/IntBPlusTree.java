@@ -0,0 +1,167 @@
+package treespeed;
+
+import treespeed.BPlusNodes.Inner;
+import treespeed.BPlusNodes.Leaf;
+import treespeed.BPlusNodes.Node;
+
+/*
+ * Mikey Dimucci
+ * B+ tree for int keys
+ *
+ * Same structure as BPlusTree, with the keys of each node in an int[] so a node
+ * search is a scan over one primitive array with no pointer chasing. See BPlusTree for the rest.
+ */
+public class IntBPlusTree implements IntTree {
+
+    public static final int DEFAULT_FANOUT = BPlusNodes.DEFAULT_FANOUT;
+
+    private final BPlusNodes<int[]> nodes;
+
+    public IntBPlusTree() {
+        this(DEFAULT_FANOUT);
+    }
+
+    // fanout is the most children an inner node can have
+    public IntBPlusTree(int fanout) {
+        this.nodes = new BPlusNodes<>(fanout) {
+            @Override
+            int[] newKeys(int length) {
+                return new int[length];
+            }
+
+            @Override
+            void clearKeys(int[] keys, int from, int to) {
+                // ints hold no references
+            }
+
+            @Override
+            String keyString(int[] keys, int i) {
+                return Integer.toString(keys[i]);
+            }
+        };
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return nodes.size == 0;
+    }
+
+    // kept up to date by insert and remove, so no walk is needed
+    @Override
+    public int countNodes() {
+        return nodes.size;
+    }
+
+    @Override
+    public boolean search(int key) {
+        Node<int[]> node = nodes.root;
+        if (node == null) {
+            return false;
+        }
+        while (node instanceof Inner) {
+            node = ((Inner<int[]>) node).children[childIndex(node, key)];
+        }
+        return indexOf(node, key) >= 0;
+    }
+
+    @Override
+    public void insert(int key) {
+        if (nodes.root == null) {
+            Leaf<int[]> leaf = nodes.newLeaf();
+            leaf.keys[0] = key;
+            nodes.plant(leaf);
+            return;
+        }
+        int depth = descend(key);
+        Leaf<int[]> leaf = nodes.leafAt(depth);
+        int pos = indexOf(leaf, key);
+        if (pos >= 0) {
+            nodes.clearPath(depth);
+            return; // Duplicate keys are not allowed
+        }
+        pos = -pos - 1;
+        nodes.openSlot(leaf, pos);
+        leaf.keys[pos] = key;
+        nodes.addedToLeaf(leaf, depth);
+    }
+
+    @Override
+    public void remove(int key) {
+        if (nodes.root == null) {
+            return;
+        }
+        int depth = descend(key);
+        Leaf<int[]> leaf = nodes.leafAt(depth);
+        int pos = indexOf(leaf, key);
+        if (pos < 0) {
+            nodes.clearPath(depth);
+            return;
+        }
+        nodes.removeFromLeaf(leaf, pos, depth);
+    }
+
+    // Walk from the root to the leaf for key, recording the path, returns its depth
+    private int descend(int key) {
+        int depth = 0;
+        Node<int[]> node = nodes.root;
+        while (node instanceof Inner) {
+            Inner<int[]> inner = (Inner<int[]>) node;
+            int i = childIndex(inner, key);
+            nodes.pathNodes[depth] = inner;
+            nodes.pathIndex[depth] = i;
+            depth++;
+            node = inner.children[i];
+        }
+        return depth;
+    }
+
+    // Child to follow for key: the number of separators that are <= key
+    private static int childIndex(Node<int[]> node, int key) {
+        int lo = 0;
+        int hi = node.count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (key < node.keys[mid]) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    // Position of key in the node, or -(insertion point) - 1, same contract as Arrays.binarySearch
+    private static int indexOf(Node<int[]> node, int key) {
+        int lo = 0;
+        int hi = node.count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int k = node.keys[mid];
+            if (key == k) {
+                return mid;
+            }
+            if (key < k) {
+                hi = mid - 1;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return -lo - 1;
+    }
+
+    // TOSTRING (equivalents)
+    // in order, straight along the leaf chain
+    public void inorder() {
+        nodes.inorder();
+    }
+
+    // node keys, then each child
+    public void preorder() {
+        nodes.preorder(nodes.root);
+    }
+
+    // each child, then node keys
+    public void postorder() {
+        nodes.postorder(nodes.root);
+    }
+}
@@ -0,0 +1,26 @@
+package treespeed;
+
+/**
+ * Ordered set of int keys, the int counterpart of the BinaryTree API.
+ * Lets the primitive trees be swapped in the benchmarks without boxing.
+ *
+ * @author (Mikey Dimucci)
+ * @version (2024)
+ */
+public interface IntTree
+{
+    /* Function to insert a key, duplicates are ignored */
+    void insert(int key);
+
+    /* Function to remove a key, missing keys are ignored */
+    void remove(int key);
+
+    /* Function to check whether a key is in the tree */
+    boolean search(int key);
+
+    /* Function to count number of keys */
+    int countNodes();
+
+    /* Function to check if tree is empty */
+    boolean isEmpty();
+}
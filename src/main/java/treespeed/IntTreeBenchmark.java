@@ -0,0 +1,174 @@
+package treespeed;
+
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH suite for the int keyed trees, the IntTree counterpart of TreeBenchmark.
+ * TreeSet is the boxed, one object per node baseline.
+ * e.g. "java -jar target/benchmarks.jar IntTreeBenchmark -p size=10000000"
+ *
+ * @author (Mikey Dimucci)
+ * @version (2024)
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IntTreeBenchmark {
+
+    // seed for the generator so every fork sees the same dataset
+    private static final long SEED = 42L;
+
+    @State(Scope.Benchmark)
+    public static class Dataset {
+        @Param({"IntAVLTree", "OffHeapRedBlackTree", "IntBPlusTree", "TreeSet"})
+        public String tree;
+
+        @Param({"100000", "1000000"})
+        public int size;
+
+        // one of KeyGenerator.Order
+        @Param({"sorted", "random"})
+        public String order;
+
+        int[] keys;     // insertion order, even numbers
+        int[] lookups;  // keys to search for and remove
+        int[] misses;   // odd numbers, never stored
+
+        @Setup(Level.Trial)
+        public void makeKeys() {
+            KeyGenerator generator = new KeyGenerator(SEED);
+            KeyGenerator.Order insertOrder = KeyGenerator.Order.valueOf(order.toUpperCase());
+            keys = generator.ints(size, insertOrder);
+            lookups = insertOrder == KeyGenerator.Order.ZIPF ? keys.clone() : generator.ints(size, KeyGenerator.Order.RANDOM);
+            misses = new int[size];
+            for (int i = 0; i < size; i++) {
+                misses[i] = lookups[i] + 1;
+            }
+        }
+
+        IntTree newTree() {
+            switch (tree) {
+                case "IntAVLTree":
+                    return new IntAVLTree();
+                case "OffHeapRedBlackTree":
+                    return new OffHeapRedBlackTree();
+                case "IntBPlusTree":
+                    return new IntBPlusTree();
+                case "TreeSet":
+                    return new BoxedTreeSet();
+                default:
+                    throw new IllegalArgumentException("Unknown tree: " + tree);
+            }
+        }
+
+        IntTree buildTree() {
+            IntTree t = newTree();
+            for (int key : keys) {
+                t.insert(key);
+            }
+            return t;
+        }
+    }
+
+    // tree built once per trial for the lookups
+    @State(Scope.Thread)
+    public static class Built {
+        IntTree tree;
+        int next;
+
+        @Setup(Level.Trial)
+        public void build(Dataset data) {
+            tree = data.buildTree();
+        }
+    }
+
+    // fresh tree for every remove call, the build is not timed
+    @State(Scope.Thread)
+    public static class Filled {
+        IntTree tree;
+
+        @Setup(Level.Invocation)
+        public void build(Dataset data) {
+            tree = data.buildTree();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IntTree insert(Dataset data) {
+        return data.buildTree();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean searchHit(Dataset data, Built built) {
+        int key = data.lookups[built.next];
+        built.next = built.next + 1 == data.size ? 0 : built.next + 1;
+        return built.tree.search(key);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean searchMiss(Dataset data, Built built) {
+        int key = data.misses[built.next];
+        built.next = built.next + 1 == data.size ? 0 : built.next + 1;
+        return built.tree.search(key);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public IntTree remove(Dataset data, Filled filled) {
+        for (int key : data.lookups) {
+            filled.tree.remove(key);
+        }
+        return filled.tree;
+    }
+
+    // java.util.TreeSet behind the IntTree API, every key is boxed
+    private static class BoxedTreeSet implements IntTree {
+        private final TreeSet<Integer> set = new TreeSet<>();
+
+        @Override
+        public void insert(int key) {
+            set.add(key);
+        }
+
+        @Override
+        public void remove(int key) {
+            set.remove(key);
+        }
+
+        @Override
+        public boolean search(int key) {
+            return set.contains(key);
+        }
+
+        @Override
+        public int countNodes() {
+            return set.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return set.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package treespeed;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator of synthetic key streams for scaling runs past the two book files.
+ * The same seed always gives the same stream, so runs on different trees see the same keys.
+ *
+ * String keys look like book titles ("The Dark Iron Moon Station", around 30 chars, all
+ * sharing the "The " prefix) and title(i) sorts in the same order as i.
+ * Int keys are the even numbers 0, 2, 4, ... so every odd number is a guaranteed miss.
+ *
+ * @author (Mikey Dimucci)
+ * @version (2024)
+ */
+public class KeyGenerator
+{
+    // order of the generated stream
+    public enum Order {
+        SORTED,         // ascending, like SciFiLiSorted.txt
+        REVERSE,        // descending
+        RANDOM,         // uniform shuffle of every key once
+        NEARLY_SORTED,  // ascending with about 1% of the keys moved a short distance
+        ZIPF            // skewed draws with repeats, a few hot keys dominate
+    }
+
+    // skew of the ZIPF order, 0.99 is the usual "hot key" setting
+    public static final double ZIPF_THETA = 0.99;
+
+    // large prime used to spread zipf ranks over the key space so hot keys are not all the smallest ones
+    private static final long SCATTER = 2_147_483_629L;
+
+    // title vocabulary, sorted so that title(i) increases with i
+    private static final String[] WORDS = {
+        "Alien", "Amber", "Android", "Ark", "Ashes", "Asteroid", "Beyond", "Black", "Blood", "Blue",
+        "Burning", "Children", "Chronicles", "City", "Clockwork", "Cloud", "Code", "Cold", "Comet", "Crown",
+        "Crystal", "Dark", "Dawn", "Dead", "Deep", "Desert", "Dragon", "Dream", "Dust", "Earth",
+        "Echo", "Edge", "Empire", "Engine", "Exile", "Fall", "Fire", "Forge", "Forgotten", "Frontier",
+        "Galaxy", "Ghost", "Glass", "Gold", "Gravity", "Gray", "Harbor", "Heart", "Hidden", "Horizon",
+        "Hunger", "Ice", "Iron", "Last", "Light", "Lost", "Machine", "Mars", "Memory", "Mirror",
+        "Moon", "Night", "Nova", "Ocean", "Orbit", "Outpost", "Planet", "Quantum", "Rain", "Red",
+        "Rising", "River", "Ruin", "Salt", "Shadow", "Signal", "Silent", "Silver", "Sky", "Solar",
+        "Song", "Star", "Stars", "Station", "Steel", "Storm", "Sun", "Tide", "Time", "Tower",
+        "Twilight", "Void", "Voyage", "War", "Water", "Wild", "Wind", "Winter", "World", "Zero"
+    };
+
+    // at least this many words after "The", more are added when n needs them
+    private static final int MIN_WORDS = 4;
+
+    static {
+        Arrays.sort(WORDS);
+    }
+
+    private final long seed;
+
+    public KeyGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /* Function to make the i-th title of a key space of n titles
+     * i is spread evenly over every possible word combination, then written as base
+     * WORDS.length digits, most significant first, one word per digit
+     * titles of the same key space all have the same number of words, so string order matches i
+     */
+    public static String title(long i, long n) {
+        int words = wordsFor(n);
+        long capacity = 1;
+        for (int w = 0; w < words; w++) {
+            capacity *= WORDS.length;
+        }
+        long position = i * (capacity / n);
+        StringBuilder sb = new StringBuilder(4 + words * 8);
+        sb.append("The");
+        long div = capacity / WORDS.length;
+        for (int w = 0; w < words; w++) {
+            sb.append(' ').append(WORDS[(int) ((position / div) % WORDS.length)]);
+            div /= WORDS.length;
+        }
+        return sb.toString();
+    }
+
+    /* Function to make a title that falls strictly between title(i, n) and title(i + 1, n) */
+    public static String missingTitle(long i, long n) {
+        return title(i, n) + " II";
+    }
+
+    // number of words needed to give n titles their own digits
+    private static int wordsFor(long n) {
+        int words = 1;
+        long capacity = WORDS.length;
+        while (capacity < n) {
+            capacity *= WORDS.length;
+            words++;
+        }
+        return Math.max(words, MIN_WORDS);
+    }
+
+    /* Function to generate n title keys in the given order */
+    public String[] titles(int n, Order order) {
+        int[] index = indices(n, order);
+        String[] keys = new String[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = title(index[i], n);
+        }
+        return keys;
+    }
+
+    /* Function to generate n titles that are not in titles(n, order), shuffled */
+    public String[] missingTitles(int n) {
+        int[] index = indices(n, Order.RANDOM);
+        String[] keys = new String[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = missingTitle(index[i], n);
+        }
+        return keys;
+    }
+
+    /* Function to generate n int keys in the given order */
+    public int[] ints(int n, Order order) {
+        if (n > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Too many int keys: " + n);
+        }
+        int[] keys = indices(n, order);
+        for (int i = 0; i < n; i++) {
+            keys[i] *= 2;
+        }
+        return keys;
+    }
+
+    /* Function to generate positions 0..n-1 of the key space in the given order */
+    public int[] indices(int n, Order order) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] index = new int[n];
+        switch (order) {
+            case SORTED:
+                for (int i = 0; i < n; i++) {
+                    index[i] = i;
+                }
+                break;
+            case REVERSE:
+                for (int i = 0; i < n; i++) {
+                    index[i] = n - 1 - i;
+                }
+                break;
+            case RANDOM:
+                for (int i = 0; i < n; i++) {
+                    index[i] = i;
+                }
+                shuffle(index, random);
+                break;
+            case NEARLY_SORTED:
+                for (int i = 0; i < n; i++) {
+                    index[i] = i;
+                }
+                // swap about 1% of the keys with a neighbour at most 16 places away
+                for (int s = 0; s < n / 100; s++) {
+                    int i = random.nextInt(n);
+                    int j = Math.min(n - 1, i + 1 + random.nextInt(16));
+                    int t = index[i];
+                    index[i] = index[j];
+                    index[j] = t;
+                }
+                break;
+            case ZIPF:
+                zipf(index, n, random);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown order: " + order);
+        }
+        return index;
+    }
+
+    // Fisher-Yates shuffle
+    private static void shuffle(int[] a, SplittableRandom random) {
+        for (int i = a.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    /* Function to fill out with zipf distributed positions in 0..n-1
+     * Gray et al. "Quickly Generating Billion-Record Synthetic Databases", as used by YCSB
+     * rank 0 is the hottest, ranks are then scattered so the hot keys land all over the tree
+     */
+    private static void zipf(int[] out, int n, SplittableRandom random) {
+        if (n == 0) {
+            return;
+        }
+        double zetan = zeta(n, ZIPF_THETA);
+        double zeta2 = zeta(Math.min(n, 2), ZIPF_THETA);
+        double alpha = 1.0 / (1.0 - ZIPF_THETA);
+        double eta = (1 - Math.pow(2.0 / n, 1 - ZIPF_THETA)) / (1 - zeta2 / zetan);
+        double second = 1 + Math.pow(0.5, ZIPF_THETA);
+        for (int i = 0; i < out.length; i++) {
+            double u = random.nextDouble();
+            double uz = u * zetan;
+            long rank;
+            if (uz < 1.0) {
+                rank = 0;
+            } else if (uz < second) {
+                rank = 1;
+            } else {
+                rank = (long) (n * Math.pow(eta * u - eta + 1, alpha));
+            }
+            rank = Math.min(rank, n - 1);
+            out[i] = (int) (rank * SCATTER % n);
+        }
+    }
+
+    // generalized harmonic number, sum of 1 / i^theta for i = 1..n
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
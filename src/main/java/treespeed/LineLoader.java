@@ -0,0 +1,63 @@
+package treespeed;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+/**
+ * Reads a title file one line per key.
+ * loadInto streams the lines straight into trees and only ever holds the current line,
+ * so a catalog file can be much larger than the heap.
+ * Blank lines are skipped.
+ *
+ * @author (Mikey Dimucci)
+ * @version (2024)
+ */
+public class LineLoader
+{
+    // read buffer, large enough that the loader runs at disk speed
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private LineLoader() {
+    }
+
+    /* Function to read every line into an array
+     * For the timed runs in Main, which need the keys in memory before the clock starts
+     */
+    public static String[] readLines(String filename) throws IOException
+    {
+        try (Stream<String> lines = Files.lines(Paths.get(filename), StandardCharsets.UTF_8)) {
+            return lines.filter(line -> !line.isEmpty()).toArray(String[]::new);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /* Function to stream every line of a file into one or more trees
+     * returns the number of lines inserted
+     */
+    public static long loadInto(String filename, BinaryTree... trees) throws IOException
+    {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(Paths.get(filename)), StandardCharsets.UTF_8),
+                BUFFER_SIZE)) {
+            long count = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                for (BinaryTree tree : trees) {
+                    tree.insert(line);
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package treespeed;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+
+/*
+ * Mikey Dimucci
+ * Lock-free skip list
+ *
+ * The concurrent contender: insert, remove and search may be called from any number of threads
+ * with no locking. BinaryTree, AVLTree and RedBlackTree all rewire several links per update
+ * (rotations move parent pointers around), which cannot be done safely without a lock.
+ * A skip list only ever swings one link at a time, so every update is a compareAndSet.
+ *
+ * Algorithm from Herlihy and Shavit, "The Art of Multiprocessor Programming", 14.4.
+ * Every link carries a mark bit. remove marks a node's links top down (logical delete),
+ * the mark on level 0 is the linearization point, and any later find snips marked nodes out.
+ * search never writes and never retries.
+ * Duplicate keys are not allowed, same as AVLTree and RedBlackTree.
+ */
+public class LockFreeSkipList extends BinaryTree {
+
+    // highest level a node can reach, enough for about 2^32 keys
+    private static final int MAX_LEVEL = 31;
+
+    private static final class Node {
+        final String key;
+        final AtomicMarkableReference<Node>[] next;
+        final int topLevel;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node(String key, int topLevel) {
+            this.key = key;
+            this.topLevel = topLevel;
+            this.next = (AtomicMarkableReference<Node>[]) new AtomicMarkableReference[topLevel + 1];
+            for (int i = 0; i <= topLevel; i++) {
+                next[i] = new AtomicMarkableReference<>(null, false);
+            }
+        }
+    }
+
+    // sentinel in front of every level, its key is never compared
+    // volatile so buildFromSorted can swap in a whole new list at once
+    private volatile Node head = new Node(null, MAX_LEVEL);
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    @Override
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    // kept up to date by insert and remove, so no walk is needed
+    @Override
+    public int countNodes() {
+        return size.get();
+    }
+
+    // Wait-free lookup, skips marked nodes without unlinking them
+    @Override
+    public String search(String val) {
+        boolean[] marked = {false};
+        Node pred = head;
+        Node curr = null;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            curr = pred.next[level].getReference();
+            while (curr != null) {
+                Node succ = curr.next[level].get(marked);
+                while (marked[0]) {
+                    curr = succ;
+                    if (curr == null) {
+                        break;
+                    }
+                    succ = curr.next[level].get(marked);
+                }
+                if (curr == null || curr.key.compareTo(val) >= 0) {
+                    break;
+                }
+                pred = curr;
+                curr = succ;
+            }
+        }
+        return curr != null && curr.key.equals(val) ? curr.key : null;
+    }
+
+    // ORDERED ACCESS
+    // weakly consistent like search: keys added or removed while a query runs may or may not be seen
+    @Override
+    public String floor(String val) {
+        Node pred = lower(val);
+        Node next = nextLive(pred);
+        if (next != null && next.key.equals(val)) {
+            return next.key;
+        }
+        return pred == head ? null : pred.key;
+    }
+
+    @Override
+    public String ceiling(String val) {
+        Node next = nextLive(lower(val));
+        return next == null ? null : next.key;
+    }
+
+    // One descent to the first key, then along level 0, skipping marked nodes
+    @Override
+    protected Iterator<String> range(String from, String to) {
+        Node start = nextLive(from == null ? head : lower(from));
+        return new Iterator<String>() {
+            private Node next = start;
+
+            @Override
+            public boolean hasNext() {
+                return next != null && (to == null || next.key.compareTo(to) < 0);
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String key = next.key;
+                next = nextLive(next);
+                return key;
+            }
+        };
+    }
+
+    // Last node with a key below val, or head, found the same wait-free way as search
+    private Node lower(String val) {
+        boolean[] marked = {false};
+        Node pred = head;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            Node curr = pred.next[level].getReference();
+            while (curr != null) {
+                Node succ = curr.next[level].get(marked);
+                while (marked[0]) {
+                    curr = succ;
+                    if (curr == null) {
+                        break;
+                    }
+                    succ = curr.next[level].get(marked);
+                }
+                if (curr == null || curr.key.compareTo(val) >= 0) {
+                    break;
+                }
+                pred = curr;
+                curr = succ;
+            }
+        }
+        return pred;
+    }
+
+    // First unmarked node after node on level 0, or null
+    private static Node nextLive(Node node) {
+        boolean[] marked = {false};
+        Node curr = node.next[0].getReference();
+        while (curr != null) {
+            Node succ = curr.next[0].get(marked);
+            if (!marked[0]) {
+                return curr;
+            }
+            curr = succ;
+        }
+        return null;
+    }
+
+    @Override
+    public void insert(String key) {
+        int topLevel = randomLevel();
+        Node[] preds = new Node[MAX_LEVEL + 1];
+        Node[] succs = new Node[MAX_LEVEL + 1];
+        while (true) {
+            if (find(key, preds, succs)) {
+                return; // Duplicate keys are not allowed
+            }
+            Node node = new Node(key, topLevel);
+            for (int level = 0; level <= topLevel; level++) {
+                node.next[level].set(succs[level], false);
+            }
+            // linking level 0 puts the key in the set
+            if (!preds[0].next[0].compareAndSet(succs[0], node, false, false)) {
+                continue;
+            }
+            size.incrementAndGet();
+            // the upper levels are only shortcuts, link them one at a time
+            for (int level = 1; level <= topLevel; level++) {
+                while (true) {
+                    Node succ = succs[level];
+                    Node current = node.next[level].getReference();
+                    if (node.next[level].isMarked()) {
+                        return; // already being removed, stop linking it
+                    }
+                    if (current != succ && !node.next[level].compareAndSet(current, succ, false, false)) {
+                        return;
+                    }
+                    if (preds[level].next[level].compareAndSet(succ, node, false, false)) {
+                        break;
+                    }
+                    find(key, preds, succs);
+                }
+            }
+            return;
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        Node[] preds = new Node[MAX_LEVEL + 1];
+        Node[] succs = new Node[MAX_LEVEL + 1];
+        boolean[] marked = {false};
+        if (!find(key, preds, succs)) {
+            return;
+        }
+        Node victim = succs[0];
+        // mark the shortcut levels first, top down
+        for (int level = victim.topLevel; level >= 1; level--) {
+            Node succ = victim.next[level].get(marked);
+            while (!marked[0]) {
+                victim.next[level].compareAndSet(succ, succ, false, true);
+                succ = victim.next[level].get(marked);
+            }
+        }
+        // marking level 0 removes the key, whoever marks it first wins
+        Node succ = victim.next[0].get(marked);
+        while (true) {
+            boolean iMarkedIt = victim.next[0].compareAndSet(succ, succ, false, true);
+            succ = victim.next[0].get(marked);
+            if (iMarkedIt) {
+                size.decrementAndGet();
+                // unlink it physically
+                find(key, preds, succs);
+                return;
+            } else if (marked[0]) {
+                return; // someone else removed it
+            }
+        }
+    }
+
+    /* Function to find the nodes either side of key on every level
+     * snips out any marked node on the way, and starts over if another thread got there first
+     * returns whether an unmarked node holding key is in the list
+     */
+    private boolean find(String key, Node[] preds, Node[] succs) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            Node pred = head;
+            Node curr = null;
+            for (int level = MAX_LEVEL; level >= 0; level--) {
+                curr = pred.next[level].getReference();
+                while (curr != null) {
+                    Node succ = curr.next[level].get(marked);
+                    while (marked[0]) {
+                        if (!pred.next[level].compareAndSet(curr, succ, false, false)) {
+                            continue retry;
+                        }
+                        curr = succ;
+                        if (curr == null) {
+                            break;
+                        }
+                        succ = curr.next[level].get(marked);
+                    }
+                    if (curr == null || curr.key.compareTo(key) >= 0) {
+                        break;
+                    }
+                    pred = curr;
+                    curr = succ;
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return curr != null && curr.key.equals(key);
+        }
+    }
+
+    // Level for a new node: level k or above with probability 2^-k
+    private static int randomLevel() {
+        int bits = ThreadLocalRandom.current().nextInt();
+        return Math.min(Integer.numberOfTrailingZeros(bits), MAX_LEVEL);
+    }
+
+    // Build a new list from a list of keys in O(n) and publish it in one write
+    // writers running at the same time may land in the list being replaced
+    @Override
+    public void buildFromSorted(String[] keys) {
+        String[] sorted = distinct(inOrder(keys));
+        Node newHead = new Node(null, MAX_LEVEL);
+        // last node linked on each level
+        Node[] last = new Node[MAX_LEVEL + 1];
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            last[level] = newHead;
+        }
+        for (String key : sorted) {
+            Node node = new Node(key, randomLevel());
+            for (int level = 0; level <= node.topLevel; level++) {
+                last[level].next[level].set(node, false);
+                last[level] = node;
+            }
+        }
+        size.set(sorted.length);
+        head = newHead;
+    }
+
+    // TOSTRING (equivalents)
+    // a skip list has no tree shape, so every traversal prints the keys in order along level 0
+    @Override
+    public void inorder() {
+        boolean[] marked = {false};
+        Node curr = head.next[0].getReference();
+        while (curr != null) {
+            Node succ = curr.next[0].get(marked);
+            if (!marked[0]) {
+                System.out.print(curr.key + " ");
+            }
+            curr = succ;
+        }
+    }
+
+    @Override
+    public void preorder() {
+        inorder();
+    }
+
+    @Override
+    public void postorder() {
+        inorder();
+    }
+}
@@ -0,0 +1,211 @@
+package treespeed;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Mikey Dimucci
+ * Read/write locked wrapper
+ *
+ * Lets one of the single threaded trees be shared between threads.
+ * Searches take the read lock, so any number of them run at once,
+ * insert, remove and buildFromSorted take the write lock and run alone.
+ * A SplayTree rearranges itself on every search and a CachedTree updates its cache,
+ * so for one of those (even behind another wrapper) the reads take the write lock too
+ * and nothing runs at the same time.
+ */
+public class LockedTree extends ForwardingTree {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // the lock the reads take
+    private final Lock readLock;
+
+    public LockedTree(BinaryTree tree) {
+        super(tree);
+        this.readLock = searchWrites(tree) ? lock.writeLock() : lock.readLock();
+    }
+
+    // A SplayTree splays and a CachedTree updates its cache on every search, also under other wrappers
+    private static boolean searchWrites(BinaryTree tree) {
+        if (tree instanceof SplayTree || tree instanceof CachedTree) {
+            return true;
+        }
+        return tree instanceof ForwardingTree && searchWrites(((ForwardingTree) tree).getTree());
+    }
+
+    /* Not safe on a shared tree: the lock only covers reading the root reference,
+     * the nodes under it keep changing with every write once it is unlocked.
+     * Only for a tree no other thread is writing, shared callers use the locked methods below,
+     * which copy out what they need under the lock
+     */
+    @Override
+    public BinNode getRoot() {
+        readLock.lock();
+        try {
+            return tree.getRoot();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        readLock.lock();
+        try {
+            return tree.isEmpty();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int countNodes() {
+        readLock.lock();
+        try {
+            return tree.countNodes();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    // size, rank and select walk the nodes in BinaryTree, so they go to the wrapped tree under the lock too
+    @Override
+    public int size() {
+        readLock.lock();
+        try {
+            return tree.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public int rank(String val) {
+        readLock.lock();
+        try {
+            return tree.rank(val);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public String select(int index) {
+        readLock.lock();
+        try {
+            return tree.select(index);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public String search(String val) {
+        readLock.lock();
+        try {
+            return tree.search(val);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public String floor(String val) {
+        readLock.lock();
+        try {
+            return tree.floor(val);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public String ceiling(String val) {
+        readLock.lock();
+        try {
+            return tree.ceiling(val);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    // A lazy iterator would outlive the lock, so the range is copied out under it
+    @Override
+    protected Iterator<String> range(String from, String to) {
+        readLock.lock();
+        try {
+            List<String> keys = new ArrayList<>();
+            Iterator<String> it = tree.range(from, to);
+            while (it.hasNext()) {
+                keys.add(it.next());
+            }
+            return keys.iterator();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void insert(String data) {
+        lock.writeLock().lock();
+        try {
+            tree.insert(data);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(String data) {
+        lock.writeLock().lock();
+        try {
+            tree.remove(data);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void buildFromSorted(String[] keys) {
+        lock.writeLock().lock();
+        try {
+            tree.buildFromSorted(keys);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // TOSTRING (equivalents)
+    @Override
+    public void inorder() {
+        readLock.lock();
+        try {
+            tree.inorder();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void preorder() {
+        readLock.lock();
+        try {
+            tree.preorder();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public void postorder() {
+        readLock.lock();
+        try {
+            tree.postorder();
+        } finally {
+            readLock.unlock();
+        }
+    }
+}
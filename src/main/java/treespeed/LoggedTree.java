@@ -0,0 +1,324 @@
+package treespeed;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/*
+ * Mikey Dimucci
+ * Write-ahead logged tree
+ *
+ * Wraps any of the trees and keeps it in a directory as a TreeSnapshot ("tree.snapshot")
+ * plus an append-only log of the inserts and removes made since ("tree.log").
+ * Opening the directory loads the snapshot and replays the log on top, so the tree comes back
+ * as it was at the last sync.
+ * Group commit: records collect in memory and are written and fsynced together once groupSize
+ * of them are waiting, or on sync, compact and close, so one fsync pays for a whole group.
+ * A crash loses at most the last groupSize - 1 changes, groupSize 1 makes every change durable
+ * before it returns.
+ * Compaction saves a new snapshot and empties the log, it runs by itself once the log passes
+ * compactBytes. buildFromSorted does the same with the new keys and drops the records waiting.
+ * The snapshot and the log header carry a generation number: a new snapshot is saved with the next
+ * generation before the log is emptied and stamped with it, and opening skips a log from an older
+ * generation than the snapshot. A crash between the two then finds the new snapshot and a log whose
+ * records it already has (or, after a build, that no longer apply), so nothing is lost or replayed twice.
+ * Every record carries a CRC32C, replay stops at the first torn or damaged record
+ * (the end of a write cut short by a crash) and cuts the log back to the records before it.
+ * Not thread safe, put a LockedTree around it to share it.
+ */
+public class LoggedTree extends ForwardingTree implements AutoCloseable {
+
+    // "TLOG"
+    private static final int MAGIC = 0x544C4F47;
+    // bump when the record layout changes, opening refuses other versions
+    private static final int VERSION = 2;
+    // magic, version, generation of the snapshot the records go on top of
+    private static final int HEADER_SIZE = 4 + 4 + 8;
+
+    private static final byte INSERT = 1;
+    private static final byte REMOVE = 2;
+    // op, key length, checksum around the key bytes
+    private static final int RECORD_OVERHEAD = 1 + 4 + 4;
+
+    public static final int DEFAULT_GROUP_SIZE = 64;
+    public static final long DEFAULT_COMPACT_BYTES = 64L << 20;
+
+    private final Path snapshot;
+    private final Path logFile;
+    private final FileChannel log;
+    private final int groupSize;
+    private final long compactBytes;
+
+    // records not written yet
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);
+    private int pendingRecords;
+    // bytes in the log file, header included
+    private long logSize;
+    // generation of the snapshot, 0 before the first one
+    private long generation;
+
+    private long replayed;
+    private long syncs;
+    private long compactions;
+
+    public LoggedTree(BinaryTree tree, String directory) throws IOException {
+        this(tree, directory, DEFAULT_GROUP_SIZE, DEFAULT_COMPACT_BYTES);
+    }
+
+    /* Function to open a logged tree, loading the snapshot and replaying the log in directory into tree
+     * the directory is created when it does not exist, tree should start empty
+     */
+    public LoggedTree(BinaryTree tree, String directory, int groupSize, long compactBytes) throws IOException {
+        super(tree);
+        if (groupSize < 1) {
+            throw new IllegalArgumentException("Group size must be positive: " + groupSize);
+        }
+        this.groupSize = groupSize;
+        this.compactBytes = compactBytes;
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        this.snapshot = dir.resolve("tree.snapshot");
+        this.logFile = dir.resolve("tree.log");
+        if (Files.exists(snapshot)) {
+            TreeSnapshot.load(tree, snapshot.toString());
+            generation = TreeSnapshot.generation(snapshot.toString());
+        }
+        this.log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            replay();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+    }
+
+    // STATISTICS
+    // records applied from the log when the tree was opened
+    public long getReplayed() {
+        return replayed;
+    }
+
+    // fsyncs of the log so far
+    public long getSyncs() {
+        return syncs;
+    }
+
+    // compactions so far, a buildFromSorted is not one
+    public long getCompactions() {
+        return compactions;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    // bytes in the log, written or waiting
+    public long getLogBytes() {
+        return logSize + pending.position();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d replayed, %d fsyncs, %d compactions, %d log bytes", replayed, syncs, compactions, getLogBytes());
+    }
+
+    /* Function to apply every whole record in the log to the tree
+     * a new log, or one from before the snapshot, is started again at the snapshot's generation,
+     * a log cut short by a crash is cut back to its last whole record
+     */
+    private void replay() throws IOException {
+        long size = log.size();
+        if (size < HEADER_SIZE) {
+            // new, or the crash came before the header was down
+            emptyLog();
+            return;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Log too large to map: " + size + " bytes");
+        }
+        MappedByteBuffer buffer = log.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a tree log: " + logFile);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported log version " + version + " in " + logFile);
+        }
+        long logGeneration = buffer.getLong(8);
+        if (logGeneration < generation) {
+            // the crash came after a new snapshot was saved and before the log was emptied
+            emptyLog();
+            return;
+        }
+        if (logGeneration > generation) {
+            throw new IOException("Log generation " + logGeneration + " is newer than the snapshot's " + generation + " in " + logFile);
+        }
+        buffer.position(HEADER_SIZE);
+        byte[] bytes = new byte[64];
+        CRC32C crc = new CRC32C();
+        long end = HEADER_SIZE;
+        while (buffer.remaining() >= RECORD_OVERHEAD) {
+            byte op = buffer.get();
+            int length = buffer.getInt();
+            if ((op != INSERT && op != REMOVE) || length < 0 || length > buffer.remaining() - 4) {
+                break;
+            }
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, 2 * bytes.length)];
+            }
+            buffer.get(bytes, 0, length);
+            crc.reset();
+            crc.update(op);
+            crc.update(length >>> 24);
+            crc.update(length >>> 16);
+            crc.update(length >>> 8);
+            crc.update(length);
+            crc.update(bytes, 0, length);
+            if (buffer.getInt() != (int) crc.getValue()) {
+                break;
+            }
+            String key = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            if (op == INSERT) {
+                tree.insert(key);
+            } else {
+                tree.remove(key);
+            }
+            replayed++;
+            end = buffer.position();
+        }
+        if (end < size) {
+            log.truncate(end);
+            log.force(false);
+        }
+        logSize = end;
+        log.position(logSize);
+    }
+
+    // WRITES, the record goes in the log before the tree changes
+    @Override
+    public void insert(String data) {
+        append(INSERT, data);
+        tree.insert(data);
+        commitGroup();
+    }
+
+    @Override
+    public void remove(String data) {
+        append(REMOVE, data);
+        tree.remove(data);
+        commitGroup();
+    }
+
+    // A whole new tree is a snapshot of its own, the records before it (written or waiting) no longer matter
+    // the new generation keeps the old records from being replayed onto the new keys
+    @Override
+    public void buildFromSorted(String[] keys) {
+        tree.buildFromSorted(keys);
+        pending.clear();
+        pendingRecords = 0;
+        try {
+            newGeneration();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Add one record to the pending group
+    private void append(byte op, String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        if (pending.remaining() < RECORD_OVERHEAD + bytes.length) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(2 * pending.capacity(), pending.position() + RECORD_OVERHEAD + bytes.length));
+            pending.flip();
+            bigger.put(pending);
+            pending = bigger;
+        }
+        int start = pending.position();
+        pending.put(op).putInt(bytes.length).put(bytes);
+        CRC32C crc = new CRC32C();
+        crc.update(pending.array(), start, pending.position() - start);
+        pending.putInt((int) crc.getValue());
+        pendingRecords++;
+    }
+
+    // Write and fsync once the group is full, compact once the log is big enough
+    private void commitGroup() {
+        if (pendingRecords < groupSize) {
+            return;
+        }
+        try {
+            sync();
+            if (logSize >= compactBytes) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /* Function to write every waiting record and fsync the log, one fsync for the whole group */
+    public void sync() throws IOException {
+        if (pendingRecords == 0) {
+            return;
+        }
+        pending.flip();
+        while (pending.hasRemaining()) {
+            log.write(pending);
+        }
+        pending.clear();
+        log.force(false);
+        logSize = log.position();
+        pendingRecords = 0;
+        syncs++;
+    }
+
+    /* Function to save the tree as the new snapshot and empty the log
+     * waiting records are synced first, so nothing is lost if the snapshot cannot be written
+     */
+    public void compact() throws IOException {
+        sync();
+        newGeneration();
+        compactions++;
+    }
+
+    // Save the tree as the snapshot of the next generation, then start the log again on top of it
+    private void newGeneration() throws IOException {
+        TreeSnapshot.save(tree, snapshot.toString(), generation + 1);
+        generation++;
+        emptyLog();
+    }
+
+    /* Function to cut the log back to a header of the current generation
+     * the old records are gone and synced before the new header is written, so a crash never
+     * leaves them behind a header they do not belong to
+     */
+    private void emptyLog() throws IOException {
+        log.truncate(0);
+        log.force(false);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(generation).flip();
+        while (header.hasRemaining()) {
+            log.write(header, HEADER_SIZE - header.remaining());
+        }
+        log.force(false);
+        logSize = HEADER_SIZE;
+        log.position(logSize);
+    }
+
+    /* Function to sync the waiting records and close the log, the tree itself stays usable in memory */
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            log.close();
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package treespeed;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/* Mikey Dimucci
+ * Main program
+ * Program 2
+ * 11/12/2024
+*/
+
+/* Conclusion
+ * For insertion operations in the unsorted library, the Binary Tree is by far the slowest. The high insertion time is because of the Binary Tree’s 
+ * lack of balancing, which can have unstructured form and slower insertion speed. In contrast, the AVL Tree and Red-Black Tree, which both have 
+ * self-balancing, have much faster insertion times with the Red-Black Tree performing slightly better due to its less strict balancing requirements. 
+ * In the sorted dataset, all three trees have faster insertion times, as the sorted library requires minimal rearrangement. The Binary Tree is the quickest in this case, 
+ * followed by the AVL Tree then the Red-Black Tree. This shows that in sorted data scenarios, the Binary Tree’s structure can keep up with balanced trees for insertion.
+ * 
+ * For search operations, the self-balancing trees perform well in both unsorted and sorted datasets. In the unsorted dataset, the Red-Black Tree
+ * has the best search time, closely followed by the AVL Tree. The Binary Tree, without balancing, is much slower. 
+ * This difference shows the advantage of balanced trees in reducing search depth and search time. In the sorted dataset, 
+ * the Red-Black Tree again performs best, with the Binary Tree and AVL Tree not far behind. The consistency in preformance in both unsorted 
+ * and sorted datasets suggests that Red-Black Trees are ideal for search-intensive applications, 
+ * while AVL Trees also perform well with minimal added complexity.
+ * 
+ * For the deletion operations, the Binary Tree is again the slowest in the unsorted dataset, compared to the AVL Tree and Red-Black Tree. 
+ * The Red-Black Tree’s slightly faster deletion time is due to its efficient and less strict balancing, which requires fewer rotations 
+ * during deletion. In sorted data, the Binary Tree and Red-Black Tree are close in performanceds. The AVL Tree is slower because of its stricter balancing 
+ * requirements, which can increase the number of rotations during deletions.
+ * 
+ * The Red-Black Tree is best for applications involving frequent insertions and deletions due to its efficient and less restrictive balancing method. 
+ * The AVL Tree is best used for applications where fast, consistent search times are critical, because of the benefits from its strict balancing, 
+ * though it may be less effective for deletion-heavy tasks. 
+ * The Binary Tree, while slower in unsorted contexts, performs most efficiently for datasets that are already sorted, making it a good option 
+ * for simpler applications with moderate performance requirements.
+ */
+
+
+// The timings below are single cold calls, good for a quick look only.
+// TreeBenchmark runs the same operations under JMH with warmup and forks.
+// Run with no arguments for the book lists, or "Main <count> [order]" for a synthetic library
+// of count titles from KeyGenerator, order being sorted, reverse, random, nearly_sorted or zipf.
+// Start the JVM with -Dtreespeed.metrics=true to print comparisons, rotations, recolors, nodes visited
+// and max depth under each timing (the counting then adds to the times).
+public class Main{
+    // seed for the synthetic library so runs can be compared
+    private static final long SEED = 42L;
+
+    // false positive rate of the Bloom filters put in front of the trees
+    private static final double FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    public static void main(String[] args){
+        String[] books;
+        String[] sorted;
+        String removeTitle = "War of the Worlds";
+        if (args.length > 0) {
+            // generate a synthetic library
+            int count = Integer.parseInt(args[0]);
+            KeyGenerator.Order order = args.length > 1 ? KeyGenerator.Order.valueOf(args[1].toUpperCase()) : KeyGenerator.Order.RANDOM;
+            KeyGenerator generator = new KeyGenerator(SEED);
+            books = generator.titles(count, order);
+            sorted = generator.titles(count, KeyGenerator.Order.SORTED);
+            removeTitle = sorted[count / 2];
+        } else {
+            // read from txt files
+            books = readFromFile("SciFiLiBooks.txt");
+            sorted = readFromFile("SciFiLiSorted.txt");
+        }
+
+        // initalize trees, one of each kind being compared
+        // unsorted trees
+        BinaryTree[] unsortedTrees = newTrees();
+        // sorted trees
+        BinaryTree[] sortedTrees = newTrees();
+
+        // insert into trees
+        System.out.println("Inserting into unsorted trees...");
+        insertTrees(books, unsortedTrees);
+        System.out.println("");
+
+        // the same inserts read straight from the file, line by line, file reading included
+        if (args.length == 0) {
+            System.out.println("Loading unsorted file into trees...");
+            loadTrees("SciFiLiBooks.txt", newTrees());
+            System.out.println("");
+        }
+
+        // the whole library in one sorted merge instead of insert by insert
+        System.out.println("Batch inserting into RedBlack tree...");
+        batchInsert(books, new RedBlackTree());
+        System.out.println("");
+
+        // search unsorted trees 
+        System.out.println("Searching unsorted trees for nonexistent book...");
+        searchTrees(books, unsortedTrees, "The Maze Runner");
+        System.out.println("");
+
+        // the same miss with a Bloom filter in front of each tree
+        System.out.println("Searching filtered unsorted trees for nonexistent book...");
+        filteredSearch(books, unsortedTrees, "The Maze Runner");
+        System.out.println("");
+
+        // the same skewed stream of searches with and without a cache in front of the AVL tree
+        System.out.println("Searching unsorted AVL tree for popular books through a cache...");
+        cachedSearch(books, unsortedTrees[1]);
+        System.out.println("");
+
+        // remove from unsorted trees 
+        System.out.println("Removing '" + removeTitle + "' from unsorted trees...");
+        removeTrees(books, unsortedTrees, removeTitle);
+        System.out.println("");
+
+        // create sorted trees 
+        System.out.println("Inserting into sorted trees...");
+        insertTrees(sorted, sortedTrees);
+        System.out.println("");
+
+        // bulk load the sorted library in one pass instead of insert by insert
+        System.out.println("Bulk loading sorted trees...");
+        buildTrees(sorted, newTrees());
+        System.out.println("");
+
+        // bulk load the unsorted library, sort included, on one core and then on every core
+        System.out.println("Bulk loading unsorted library in parallel...");
+        parallelBuildTrees(books);
+        System.out.println("");
+
+        // save the unsorted AVL tree and start every kind of tree from that file instead of the text
+        System.out.println("Saving and loading a snapshot...");
+        snapshotTrees(unsortedTrees[1], newTrees());
+        System.out.println("");
+
+        // the unsorted library into an AVL tree that logs every insert, then reopened from the log and from a snapshot
+        System.out.println("Inserting into a logged AVL tree...");
+        logTree(books);
+        System.out.println("");
+
+        // search sorted trees
+        System.out.println("Searching in sorted trees for nonexistent book...");
+        searchTrees(sorted, sortedTrees, "The Maze Runner");
+        System.out.println("");
+
+        // remove from sorted trees 
+        System.out.println("Removing '" + removeTitle + "' from sorted trees...");
+        removeTrees(sorted, sortedTrees, removeTitle);
+        System.out.println("");
+
+    }
+
+    // one empty tree of every kind, in the order they are reported
+    public static BinaryTree[] newTrees(){
+        return new BinaryTree[] { new BinaryTree(), new AVLTree(), new RedBlackTree(), new BPlusTree(), new LockFreeSkipList(), new PersistentAVLTree(), new SplayTree() };
+    }
+
+    // name of a tree in the report
+    public static String name(BinaryTree tree){
+        if (tree instanceof AVLTree) {
+            return "AVL tree";
+        } else if (tree instanceof RedBlackTree) {
+            return "RedBlack tree";
+        } else if (tree instanceof BPlusTree) {
+            return "B+ tree";
+        } else if (tree instanceof LockFreeSkipList) {
+            return "skip list";
+        } else if (tree instanceof PersistentAVLTree) {
+            return "persistent AVL tree";
+        } else if (tree instanceof SplayTree) {
+            return "splay tree";
+        } else if (tree instanceof CachedTree) {
+            return "cached " + name(((CachedTree) tree).getTree());
+        } else if (tree instanceof FilteredTree) {
+            return "filtered " + name(((FilteredTree) tree).getTree());
+        }
+        return "binary tree";
+    }
+
+    // counters behind the timing just printed, then start them over for the next phase
+    // only prints when metrics are on and the tree counts its operations
+    public static void printMetrics(BinaryTree tree){
+        TreeMetrics metrics = tree.getMetrics();
+        if (TreeMetrics.ENABLED && metrics.getOperations() > 0) {
+            System.out.println("   " + metrics);
+        }
+        metrics.reset();
+    }
+
+    // method to read from txt files, one book per line
+    // streams the file with LineLoader instead of gluing it into one string
+    public static String[] readFromFile(String filename){
+        try{
+            return LineLoader.readLines(filename);
+        } catch (Exception e){
+            System.out.println("An error occurred.");
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // insert into trees
+    public static void insertTrees(String[] bookArray, BinaryTree[] trees){
+        for (BinaryTree tree : trees){
+            // start timer for inserting into the tree
+            long startTime = System.nanoTime();
+            // insert books into the tree
+            for (String book : bookArray){
+                tree.insert(book);
+            }
+            // end timer for inserting into the tree
+            long endTime = System.nanoTime();
+            System.out.println(" Time taken to insert into " + name(tree) + ": " + (endTime - startTime) + " nanoseconds");
+            printMetrics(tree);
+        }
+    }
+
+    // stream a file into trees one line at a time with LineLoader, without the array in between
+    public static void loadTrees(String filename, BinaryTree[] trees){
+        for (BinaryTree tree : trees){
+            try{
+                // start timer for loading the tree
+                long startTime = System.nanoTime();
+                long lines = LineLoader.loadInto(filename, tree);
+                // end timer for loading the tree
+                long endTime = System.nanoTime();
+                System.out.println(" Time taken to load " + lines + " lines into " + name(tree) + ": " + (endTime - startTime) + " nanoseconds");
+                printMetrics(tree);
+            } catch (IOException e){
+                System.out.println("An error occurred.");
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // bulk load trees from already sorted lines
+    public static void buildTrees(String[] bookArray, BinaryTree[] trees){
+        for (BinaryTree tree : trees){
+            // start timer for building the tree
+            long startTime = System.nanoTime();
+            tree.buildFromSorted(bookArray);
+            // end timer for building the tree
+            long endTime = System.nanoTime();
+            System.out.println(" Time taken to bulk load " + name(tree) + ": " + (endTime - startTime) + " nanoseconds");
+        }
+    }
+
+    // bulk load AVL and red black trees from unsorted lines, with buildFromSorted's single threaded sort
+    // and then with the fork/join build
+    public static void parallelBuildTrees(String[] bookArray){
+        int cores = Runtime.getRuntime().availableProcessors();
+        buildTrees(bookArray, new BinaryTree[] { new AVLTree(), new RedBlackTree() });
+        // start timer for building the AVL tree
+        long startTime = System.nanoTime();
+        new AVLTree().buildParallel(bookArray);
+        // end timer for building the AVL tree
+        long endTime = System.nanoTime();
+        System.out.println(" Time taken to bulk load AVL tree on " + cores + " cores: " + (endTime - startTime) + " nanoseconds");
+        // start timer for building the red black tree
+        startTime = System.nanoTime();
+        new RedBlackTree().buildParallel(bookArray);
+        // end timer for building the red black tree
+        endTime = System.nanoTime();
+        System.out.println(" Time taken to bulk load RedBlack tree on " + cores + " cores: " + (endTime - startTime) + " nanoseconds");
+    }
+
+    // save a tree to a snapshot file, then load the file into trees
+    public static void snapshotTrees(BinaryTree saved, BinaryTree[] trees){
+        try{
+            Path file = Files.createTempFile("treespeed", ".snapshot");
+            try{
+                // start timer for saving the tree
+                long startTime = System.nanoTime();
+                saved.saveSnapshot(file.toString());
+                // end timer for saving the tree
+                long endTime = System.nanoTime();
+                System.out.println(" Time taken to save " + name(saved) + ": " + (endTime - startTime) + " nanoseconds, " + Files.size(file) + " bytes");
+                for (BinaryTree tree : trees){
+                    // start timer for loading the tree
+                    startTime = System.nanoTime();
+                    tree.loadSnapshot(file.toString());
+                    // end timer for loading the tree
+                    endTime = System.nanoTime();
+                    System.out.println(" Time taken to load " + name(tree) + ": " + (endTime - startTime) + " nanoseconds");
+                }
+            } finally {
+                Files.delete(file);
+            }
+        } catch (IOException e){
+            System.out.println("An error occurred.");
+            e.printStackTrace();
+        }
+    }
+
+    // insert into a logged AVL tree in a temporary directory, then time opening it again
+    // by replaying the log, compacting the log into a snapshot, and opening it from the snapshot
+    public static void logTree(String[] bookArray){
+        try{
+            Path dir = Files.createTempDirectory("treespeed");
+            try{
+                // start timer for inserting into the tree
+                long startTime = System.nanoTime();
+                try (LoggedTree tree = new LoggedTree(new AVLTree(), dir.toString())){
+                    for (String book : bookArray){
+                        tree.insert(book);
+                    }
+                    tree.sync();
+                    // end timer for inserting into the tree
+                    long endTime = System.nanoTime();
+                    System.out.println(" Time taken to insert into logged AVL tree: " + (endTime - startTime) + " nanoseconds");
+                    System.out.println("   " + tree);
+                }
+                startTime = System.nanoTime();
+                try (LoggedTree tree = new LoggedTree(new AVLTree(), dir.toString())){
+                    long endTime = System.nanoTime();
+                    System.out.println(" Time taken to open logged AVL tree from the log: " + (endTime - startTime) + " nanoseconds");
+                    startTime = System.nanoTime();
+                    tree.compact();
+                    endTime = System.nanoTime();
+                    System.out.println(" Time taken to compact the log: " + (endTime - startTime) + " nanoseconds");
+                }
+                startTime = System.nanoTime();
+                try (LoggedTree tree = new LoggedTree(new AVLTree(), dir.toString())){
+                    long endTime = System.nanoTime();
+                    System.out.println(" Time taken to open logged AVL tree from the snapshot: " + (endTime - startTime) + " nanoseconds, "
+                            + tree.size() + " books");
+                }
+            } finally {
+                try (Stream<Path> files = Files.list(dir)){
+                    for (Path file : (Iterable<Path>) files::iterator){
+                        Files.delete(file);
+                    }
+                }
+                Files.delete(dir);
+            }
+        } catch (IOException e){
+            System.out.println("An error occurred.");
+            e.printStackTrace();
+        }
+    }
+
+    // insert into a red black tree as one batch
+    public static void batchInsert(String[] bookArray, RedBlackTree tree){
+        // start timer for the batch insert
+        long startTime = System.nanoTime();
+        tree.insertAll(bookArray);
+        // end timer for the batch insert
+        long endTime = System.nanoTime();
+        System.out.println(" Time taken to batch insert into " + name(tree) + ": " + (endTime - startTime) + " nanoseconds");
+    }
+
+    // search trees
+    public static void searchTrees(String[] bookArray, BinaryTree[] trees, String search){
+        for (BinaryTree tree : trees){
+            // start timer for searching the tree
+            long startTime = System.nanoTime();
+            // search for book in the tree
+            tree.search(search);
+            // end timer for searching the tree
+            long endTime = System.nanoTime();
+            System.out.println(" Time taken to search in " + name(tree) + ": " + (endTime - startTime) + " nanoseconds");
+            printMetrics(tree);
+        }
+    }
+
+    // search trees behind a Bloom filter of their keys, then count how many titles that are not
+    // in the library still get through the filter
+    public static void filteredSearch(String[] bookArray, BinaryTree[] trees, String search){
+        String[] missing = new KeyGenerator(SEED).missingTitles(bookArray.length);
+        for (BinaryTree tree : trees){
+            FilteredTree filtered = new FilteredTree(tree, FILTER_FALSE_POSITIVE_RATE);
+            // start timer for searching the tree
+            long startTime = System.nanoTime();
+            // search for book in the tree
+            filtered.search(search);
+            // end timer for searching the tree
+            long endTime = System.nanoTime();
+            System.out.println(" Time taken to search in " + name(filtered) + ": " + (endTime - startTime) + " nanoseconds");
+            printMetrics(tree);
+            for (String title : missing){
+                filtered.search(title);
+            }
+            System.out.println("   " + filtered);
+            tree.getMetrics().reset();
+        }
+    }
+
+    // search a zipf stream of titles, a few are asked for most of the time, first straight from the tree
+    // and then through a cache of 1% of the titles for each eviction policy
+    public static void cachedSearch(String[] bookArray, BinaryTree tree){
+        int[] lookups = new KeyGenerator(SEED).indices(bookArray.length, KeyGenerator.Order.ZIPF);
+        int capacity = Math.max(bookArray.length / 100, 16);
+        // start timer for searching the tree
+        long startTime = System.nanoTime();
+        for (int i : lookups){
+            tree.search(bookArray[i]);
+        }
+        // end timer for searching the tree
+        long endTime = System.nanoTime();
+        System.out.println(" Time taken to search " + name(tree) + ": " + (endTime - startTime) + " nanoseconds");
+        printMetrics(tree);
+        for (CachedTree.Policy policy : CachedTree.Policy.values()){
+            CachedTree cached = new CachedTree(tree, capacity, policy);
+            // start timer for searching through the cache
+            startTime = System.nanoTime();
+            for (int i : lookups){
+                cached.search(bookArray[i]);
+            }
+            // end timer for searching through the cache
+            endTime = System.nanoTime();
+            System.out.println(" Time taken to search " + name(cached) + " (" + policy + "): " + (endTime - startTime) + " nanoseconds");
+            System.out.println("   " + cached);
+            printMetrics(tree);
+        }
+    }
+
+    // remove from trees
+    public static void removeTrees(String[] bookArray, BinaryTree[] trees, String remove){
+        for (BinaryTree tree : trees){
+            // start timer for removing from the tree
+            long startTime = System.nanoTime();
+            // remove book from the tree
+            tree.remove(remove);
+            // end timer for removing from the tree
+            long endTime = System.nanoTime();
+            System.out.println(" Time taken to remove from " + name(tree) + ": " + (endTime - startTime) + " nanoseconds");
+            printMetrics(tree);
+        }
+    }
+}
@@ -0,0 +1,447 @@
+package treespeed;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/*
+ * Mikey Dimucci
+ * Red Black tree for int keys stored outside the Java heap
+ *
+ * Same algorithm as RedBlackTree, but every node is a fixed 16 byte record in a direct ByteBuffer:
+ *   key | left | right | parent
+ * Links are record indexes, index 0 is NIL. Indexes fit in 31 bits, so the color is the top bit
+ * of the parent field. The GC only ever sees the one buffer object, not millions of nodes.
+ * Removed records go on a free list threaded through left and are reused by the next insert.
+ * A direct buffer tops out at 2 GB, so one tree holds at most about 134 million keys.
+ */
+public class OffHeapRedBlackTree implements IntTree {
+
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
+    // record layout, in bytes
+    private static final int NODE_BYTES = 16;
+    private static final int KEY = 0;
+    private static final int LEFT = 4;
+    private static final int RIGHT = 8;
+    private static final int PARENT = 12;
+
+    // top bit of the parent field, set for red nodes
+    private static final int RED_BIT = 0x80000000;
+
+    // index that stands for "no node"
+    private static final int NIL = 0;
+
+    // most records a single direct buffer can hold
+    private static final int MAX_NODES = Integer.MAX_VALUE / NODE_BYTES;
+
+    private ByteBuffer nodes;
+    private int capacity;
+
+    private int root = NIL;
+    private int size;
+    // first record that has never been used
+    private int next = 1;
+    // head of the free list of removed records
+    private int free = NIL;
+
+    public OffHeapRedBlackTree() {
+        this(1024);
+    }
+
+    // capacity is the number of keys the tree can hold before its buffer grows
+    public OffHeapRedBlackTree(int capacity) {
+        if (capacity < 0 || capacity >= MAX_NODES) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        this.capacity = capacity + 1;
+        nodes = ByteBuffer.allocateDirect(this.capacity * NODE_BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    // Record accessors
+    private int key(int node) {
+        return nodes.getInt(node * NODE_BYTES + KEY);
+    }
+
+    private int left(int node) {
+        return nodes.getInt(node * NODE_BYTES + LEFT);
+    }
+
+    private int right(int node) {
+        return nodes.getInt(node * NODE_BYTES + RIGHT);
+    }
+
+    private int parent(int node) {
+        return nodes.getInt(node * NODE_BYTES + PARENT) & ~RED_BIT;
+    }
+
+    private void setLeft(int node, int child) {
+        nodes.putInt(node * NODE_BYTES + LEFT, child);
+    }
+
+    private void setRight(int node, int child) {
+        nodes.putInt(node * NODE_BYTES + RIGHT, child);
+    }
+
+    // keeps the color bit
+    private void setParent(int node, int parent) {
+        int at = node * NODE_BYTES + PARENT;
+        nodes.putInt(at, (nodes.getInt(at) & RED_BIT) | parent);
+    }
+
+    // Get the color of a node, NIL is black
+    private boolean getColor(int node) {
+        if (node == NIL) {
+            return BLACK;
+        }
+        return nodes.getInt(node * NODE_BYTES + PARENT) < 0;
+    }
+
+    // Set the color of a node
+    private void setColor(int node, boolean color) {
+        if (node != NIL) {
+            int at = node * NODE_BYTES + PARENT;
+            int field = nodes.getInt(at);
+            nodes.putInt(at, color == RED ? field | RED_BIT : field & ~RED_BIT);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == NIL;
+    }
+
+    // kept up to date by insert and remove, so no walk is needed
+    @Override
+    public int countNodes() {
+        return size;
+    }
+
+    // number of keys the tree can hold before its buffer grows
+    public int getCapacity() {
+        return capacity - 1;
+    }
+
+    @Override
+    public boolean search(int key) {
+        return find(key) != NIL;
+    }
+
+    // Walk down to the record holding key, or NIL
+    private int find(int key) {
+        int node = root;
+        while (node != NIL) {
+            int k = key(node);
+            if (key == k) {
+                return node;
+            }
+            node = key < k ? left(node) : right(node);
+        }
+        return NIL;
+    }
+
+    // Replace oldChild with newChild under parent, or at the root when parent is NIL
+    private void replaceChild(int parent, int oldChild, int newChild) {
+        if (parent == NIL) {
+            root = newChild;
+        } else if (oldChild == left(parent)) {
+            setLeft(parent, newChild);
+        } else {
+            setRight(parent, newChild);
+        }
+    }
+
+    // Rotate left at node
+    private void rotateLeft(int node) {
+        int rightChild = right(node);
+        setRight(node, left(rightChild));
+        if (right(node) != NIL) {
+            setParent(right(node), node);
+        }
+        setParent(rightChild, parent(node));
+        replaceChild(parent(node), node, rightChild);
+        setLeft(rightChild, node);
+        setParent(node, rightChild);
+    }
+
+    // Rotate right at node
+    private void rotateRight(int node) {
+        int leftChild = left(node);
+        setLeft(node, right(leftChild));
+        if (left(node) != NIL) {
+            setParent(left(node), node);
+        }
+        setParent(leftChild, parent(node));
+        replaceChild(parent(node), node, leftChild);
+        setRight(leftChild, node);
+        setParent(node, leftChild);
+    }
+
+    // walks down with a loop and links the new record through its parent
+    @Override
+    public void insert(int key) {
+        int parent = NIL;
+        int current = root;
+        while (current != NIL) {
+            parent = current;
+            int k = key(current);
+            if (key == k) {
+                return; // duplicates are dropped
+            }
+            current = key < k ? left(current) : right(current);
+        }
+        int node = allocate(key, parent);
+        if (parent == NIL) {
+            root = node;
+        } else if (key < key(parent)) {
+            setLeft(parent, node);
+        } else {
+            setRight(parent, node);
+        }
+        fixInsert(node);
+    }
+
+    // Fix the red-black tree after insertion
+    private void fixInsert(int node) {
+        while (node != root && getColor(node) == RED && getColor(parent(node)) == RED) {
+            int parent = parent(node);
+            int grandparent = parent(parent);
+            // Parent is left child of grandparent
+            if (parent == left(grandparent)) {
+                int uncle = right(grandparent);
+                // uncle is red, recolor
+                if (getColor(uncle) == RED) {
+                    setColor(uncle, BLACK);
+                    setColor(parent, BLACK);
+                    setColor(grandparent, RED);
+                    node = grandparent;
+                } else {
+                    // uncle is black
+                    if (node == right(parent)) {
+                        rotateLeft(parent);
+                        node = parent;
+                        parent = parent(node);
+                    }
+                    rotateRight(grandparent);
+                    boolean tempColor = getColor(parent);
+                    setColor(parent, getColor(grandparent));
+                    setColor(grandparent, tempColor);
+                    node = parent;
+                }
+            } else {
+                int uncle = left(grandparent);
+                // uncle is red, recolor
+                if (getColor(uncle) == RED) {
+                    setColor(uncle, BLACK);
+                    setColor(parent, BLACK);
+                    setColor(grandparent, RED);
+                    node = grandparent;
+                } else {
+                    // uncle is black
+                    if (node == left(parent)) {
+                        rotateRight(parent);
+                        node = parent;
+                        parent = parent(node);
+                    }
+                    rotateLeft(grandparent);
+                    boolean tempColor = getColor(parent);
+                    setColor(parent, getColor(grandparent));
+                    setColor(grandparent, tempColor);
+                    node = parent;
+                }
+            }
+        }
+        setColor(root, BLACK);
+    }
+
+    @Override
+    public void remove(int key) {
+        int node = find(key);
+        if (node != NIL) {
+            deleteNode(node);
+        }
+    }
+
+    // Unlink a record, same approach as RedBlackTree.deleteNode
+    private void deleteNode(int node) {
+        if (left(node) != NIL && right(node) != NIL) {
+            int successor = right(node);
+            while (left(successor) != NIL) {
+                successor = left(successor);
+            }
+            nodes.putInt(node * NODE_BYTES + KEY, key(successor));
+            node = successor;
+        }
+        // node now has at most one child
+        int replacement = left(node) != NIL ? left(node) : right(node);
+        if (replacement != NIL) {
+            setParent(replacement, parent(node));
+            replaceChild(parent(node), node, replacement);
+            if (getColor(node) == BLACK) {
+                fixDelete(replacement);
+            }
+        } else if (parent(node) == NIL) {
+            // removing the only node
+            root = NIL;
+        } else {
+            // leaf: fix up while it is still attached so it can act as the phantom black node
+            if (getColor(node) == BLACK) {
+                fixDelete(node);
+            }
+            if (parent(node) != NIL) {
+                replaceChild(parent(node), node, NIL);
+            }
+        }
+        release(node);
+    }
+
+    // balances the tree after deletion
+    private void fixDelete(int node) {
+        int sibling;
+        while (node != root && getColor(node) == BLACK) {
+            int parent = parent(node);
+            if (node == left(parent)) {
+                sibling = right(parent);
+                // if sibling is red
+                if (getColor(sibling) == RED) {
+                    setColor(sibling, BLACK);
+                    setColor(parent, RED);
+                    rotateLeft(parent);
+                    sibling = right(parent);
+                }
+                // if both children of sibling are black
+                if (getColor(left(sibling)) == BLACK && getColor(right(sibling)) == BLACK) {
+                    setColor(sibling, RED);
+                    node = parent;
+                } else {
+                    // if sibling's right child is black
+                    if (getColor(right(sibling)) == BLACK) {
+                        setColor(left(sibling), BLACK);
+                        setColor(sibling, RED);
+                        rotateRight(sibling);
+                        sibling = right(parent);
+                    }
+                    setColor(sibling, getColor(parent));
+                    setColor(parent, BLACK);
+                    setColor(right(sibling), BLACK);
+                    rotateLeft(parent);
+                    node = root;
+                }
+            } else {
+                sibling = left(parent);
+                // if sibling is red
+                if (getColor(sibling) == RED) {
+                    setColor(sibling, BLACK);
+                    setColor(parent, RED);
+                    rotateRight(parent);
+                    sibling = left(parent);
+                }
+                // if both children of sibling are black
+                if (getColor(left(sibling)) == BLACK && getColor(right(sibling)) == BLACK) {
+                    setColor(sibling, RED);
+                    node = parent;
+                } else {
+                    // if sibling's left child is black
+                    if (getColor(left(sibling)) == BLACK) {
+                        setColor(right(sibling), BLACK);
+                        setColor(sibling, RED);
+                        rotateLeft(sibling);
+                        sibling = left(parent);
+                    }
+                    setColor(sibling, getColor(parent));
+                    setColor(parent, BLACK);
+                    setColor(left(sibling), BLACK);
+                    rotateRight(parent);
+                    node = root;
+                }
+            }
+        }
+        setColor(node, BLACK);
+    }
+
+    // Take a record from the free list, or the next unused one, growing the buffer when full
+    // new records are red
+    private int allocate(int key, int parent) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left(node);
+        } else {
+            if (next == capacity) {
+                grow();
+            }
+            node = next++;
+        }
+        int at = node * NODE_BYTES;
+        nodes.putInt(at + KEY, key);
+        nodes.putInt(at + LEFT, NIL);
+        nodes.putInt(at + RIGHT, NIL);
+        nodes.putInt(at + PARENT, parent | RED_BIT);
+        size++;
+        return node;
+    }
+
+    // Put a record back on the free list
+    private void release(int node) {
+        int at = node * NODE_BYTES;
+        nodes.putInt(at + LEFT, free);
+        nodes.putInt(at + RIGHT, NIL);
+        nodes.putInt(at + PARENT, NIL);
+        free = node;
+        size--;
+    }
+
+    // Double the buffer and copy the records across, the old buffer is freed with its object
+    private void grow() {
+        if (capacity == MAX_NODES) {
+            throw new IllegalStateException("OffHeapRedBlackTree is full");
+        }
+        int newCapacity = (int) Math.min((long) capacity * 2, MAX_NODES);
+        ByteBuffer bigger = ByteBuffer.allocateDirect(newCapacity * NODE_BYTES).order(ByteOrder.nativeOrder());
+        nodes.clear();
+        bigger.put(nodes);
+        bigger.clear();
+        nodes = bigger;
+        capacity = newCapacity;
+    }
+
+    // TOSTRING (equivalents)
+    // left root right
+    public void inorder() {
+        inorder(root);
+    }
+
+    private void inorder(int node) {
+        if (node != NIL) {
+            inorder(left(node));
+            System.out.print(key(node) + " ");
+            inorder(right(node));
+        }
+    }
+
+    // root left right
+    public void preorder() {
+        preorder(root);
+    }
+
+    private void preorder(int node) {
+        if (node != NIL) {
+            System.out.print(key(node) + " ");
+            preorder(left(node));
+            preorder(right(node));
+        }
+    }
+
+    // left right root
+    public void postorder() {
+        postorder(root);
+    }
+
+    private void postorder(int node) {
+        if (node != NIL) {
+            postorder(left(node));
+            postorder(right(node));
+            System.out.print(key(node) + " ");
+        }
+    }
+}
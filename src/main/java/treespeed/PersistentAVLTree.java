@@ -0,0 +1,203 @@
+package treespeed;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+ * Mikey Dimucci
+ * Persistent AVL tree
+ *
+ * Nodes are never changed once built. insert and remove copy only the nodes on the path
+ * from the root to the change (plus the few a rotation touches) and share every other subtree
+ * with the old version, so each update makes a new root and the old root still describes
+ * the tree exactly as it was.
+ * The current root sits in an AtomicReference. Readers read it once and walk that version
+ * with no locking while writers publish new versions with compareAndSet,
+ * so snapshot() is a single read and never blocks or copies.
+ * Duplicate keys are not allowed, same as AVLTree.
+ */
+public class PersistentAVLTree extends BinaryTree {
+
+    // immutable node, the setters inherited from BinNode are only called by the constructor
+    private static final class Node extends BinNode {
+        final int height;
+
+        Node(String key, Node left, Node right) {
+            super(key);
+            setLeft(left);
+            setRight(right);
+            this.height = 1 + Math.max(height(left), height(right));
+        }
+    }
+
+    // the current version, read by search, counting and the traversals through getRoot
+    private final AtomicReference<Node> root;
+
+    public PersistentAVLTree() {
+        this(null);
+    }
+
+    private PersistentAVLTree(Node root) {
+        this.root = new AtomicReference<>(root);
+    }
+
+    @Override
+    public BinNode getRoot() {
+        return root.get();
+    }
+
+    @Override
+    protected void setRoot(BinNode root) {
+        this.root.set((Node) root);
+    }
+
+    /* Function to take a snapshot of the current version in O(1)
+     * The snapshot is a tree of its own that shares every node with this one,
+     * later changes to either tree are not seen by the other
+     */
+    public PersistentAVLTree snapshot() {
+        return new PersistentAVLTree(root.get());
+    }
+
+    // Public method to insert a key, retries if another writer published first
+    @Override
+    public void insert(String key) {
+        long prefix = BinNode.prefix(key);
+        while (true) {
+            Node current = root.get();
+            Node updated = insert(current, key, prefix);
+            if (updated == current || root.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+
+    // Public method to remove a key, retries if another writer published first
+    @Override
+    public void remove(String key) {
+        long prefix = BinNode.prefix(key);
+        while (true) {
+            Node current = root.get();
+            Node updated = remove(current, key, prefix);
+            if (updated == current || root.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+
+    /* Function to insert into the version rooted at node, returns the new root
+     * prefix is BinNode.prefix(key)
+     * returns node itself when the key is already there, so nothing is copied
+     */
+    private static Node insert(Node node, String key, long prefix) {
+        if (node == null) {
+            return new Node(key, null, null);
+        }
+        int cmp = node.compare(key, prefix);
+        if (cmp == 0) {
+            return node; // Duplicate keys are not allowed
+        }
+        if (cmp < 0) {
+            Node left = insert(left(node), key, prefix);
+            return left == left(node) ? node : balance(node.getData(), left, right(node));
+        }
+        Node right = insert(right(node), key, prefix);
+        return right == right(node) ? node : balance(node.getData(), left(node), right);
+    }
+
+    /* Function to remove from the version rooted at node, returns the new root
+     * returns node itself when the key is not there
+     */
+    private static Node remove(Node node, String key, long prefix) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = node.compare(key, prefix);
+        if (cmp < 0) {
+            Node left = remove(left(node), key, prefix);
+            return left == left(node) ? node : balance(node.getData(), left, right(node));
+        }
+        if (cmp > 0) {
+            Node right = remove(right(node), key, prefix);
+            return right == right(node) ? node : balance(node.getData(), left(node), right);
+        }
+        // Node with only one child or no child
+        if (left(node) == null) {
+            return right(node);
+        }
+        if (right(node) == null) {
+            return left(node);
+        }
+        // Node with two children, the inorder successor takes its place
+        Node successor = right(node);
+        while (left(successor) != null) {
+            successor = left(successor);
+        }
+        return balance(successor.getData(), left(node), removeMin(right(node)));
+    }
+
+    // Copy of the subtree without its smallest key
+    private static Node removeMin(Node node) {
+        if (left(node) == null) {
+            return right(node);
+        }
+        return balance(node.getData(), removeMin(left(node)), right(node));
+    }
+
+    /* Function to make a node from a key and two subtrees whose heights differ by at most two
+     * Does the same 4 cases as AVLTree.rebalance, but builds new nodes instead of rotating old ones
+     */
+    private static Node balance(String key, Node left, Node right) {
+        int leftHeight = height(left);
+        int rightHeight = height(right);
+        if (leftHeight > rightHeight + 1) {
+            Node ll = left(left);
+            Node lr = right(left);
+            // Left Left Case
+            if (height(ll) >= height(lr)) {
+                return new Node(left.getData(), ll, new Node(key, lr, right));
+            }
+            // Left Right Case
+            return new Node(lr.getData(), new Node(left.getData(), ll, left(lr)), new Node(key, right(lr), right));
+        }
+        if (rightHeight > leftHeight + 1) {
+            Node rl = left(right);
+            Node rr = right(right);
+            // Right Right Case
+            if (height(rr) >= height(rl)) {
+                return new Node(right.getData(), new Node(key, left, rl), rr);
+            }
+            // Right Left Case
+            return new Node(rl.getData(), new Node(key, left, left(rl)), new Node(right.getData(), right(rl), rr));
+        }
+        return new Node(key, left, right);
+    }
+
+    // Build a new version from a list of keys in O(n) and publish it in one write
+    // Duplicate keys are not allowed, so repeats are dropped like insert would
+    @Override
+    public void buildFromSorted(String[] keys) {
+        String[] sorted = distinct(inOrder(keys));
+        root.set(buildFromSorted(sorted, 0, sorted.length - 1));
+    }
+
+    // Middle key as the root, both halves differ in size by at most one so no rotations are needed
+    private static Node buildFromSorted(String[] keys, int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        return new Node(keys[mid], buildFromSorted(keys, lo, mid - 1), buildFromSorted(keys, mid + 1, hi));
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static Node left(Node node) {
+        return (Node) node.getLeft();
+    }
+
+    private static Node right(Node node) {
+        return (Node) node.getRight();
+    }
+}
@@ -0,0 +1,686 @@
+package treespeed;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+ * Mikey Dimucci
+ * Program 2
+ * Red Black tree
+ */
+public class RedBlackTree extends BinaryTree {
+    
+    // Red Black Tree Properties
+    // Node Color: Each node is either red or black.
+    // Root Property: The root of the tree is always black.
+    // Red Property: Red nodes cannot have red children (no two consecutive red nodes on any path).
+    // Black Property: Every path from a node to its descendant null nodes (leaves) has the same number of black nodes.
+    // Leaf Property: All leaves (NIL nodes) are black.
+
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
+    // subtrees with fewer keys than this are built by a single thread in buildParallel
+    private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+    // Node class with color field
+    // inherit from binary tree
+    // add a color field to the node class
+    // size is the number of keys in the subtree, for size(), rank and select
+    private static class Node extends BinNode {
+        Node parent;
+        boolean color; // true for RED, false for BLACK
+        int size;
+
+        Node(String data) {
+            super(data);
+            this.color = RED; // New nodes are red by default
+            this.size = 1;
+        }
+    }
+
+    public RedBlackTree() {
+        super();
+    }
+
+    // Typed child accessors, the links themselves live in BinNode
+    private static Node left(Node node) {
+        return (Node) node.getLeft();
+    }
+
+    private static Node right(Node node) {
+        return (Node) node.getRight();
+    }
+
+    // Get the number of keys under a node
+    private static int getSize(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    // Update the size of a node from its children
+    private static void setSize(Node node) {
+        node.size = 1 + getSize(left(node)) + getSize(right(node));
+    }
+
+    // Add delta to the size of node and every node above it
+    private static void addSize(Node node, int delta) {
+        for (; node != null; node = node.parent) {
+            node.size += delta;
+        }
+    }
+
+    // Get the color of a node
+    // getcolor() and setcolor(int n)
+    private boolean getColor(Node node) {
+        if (node == null) {
+            return BLACK;
+        }
+        return node.color;
+    }
+
+    // Set the color of a node
+    private void setColor(Node node, boolean color) {
+        if (node != null) {
+            if (node.color != color) {
+                metrics.recolor();
+            }
+            node.color = color;
+        }
+    }
+
+    // Replace oldChild with newChild under parent, or at the root when parent is null
+    private void replaceChild(Node parent, Node oldChild, Node newChild) {
+        if (parent == null) {
+            setRoot(newChild);
+        } else if (oldChild == parent.getLeft()) {
+            parent.setLeft(newChild);
+        } else {
+            parent.setRight(newChild);
+        }
+    }
+
+    // NOTE: every time color changes change setcolor() in insert/remove
+    // rotate left/right methods for rotations + balancing
+    // Rotate left at node, inside the tree whose top is root
+    // returns the new top, which only changes when node was the top
+    private Node rotateLeft(Node node, Node root) {
+        Node rightChild = right(node);
+        node.setRight(rightChild.getLeft());
+        if (node.getRight() != null) {
+            right(node).parent = node;
+        }
+        rightChild.parent = node.parent;
+        if (node.parent != null) {
+            replaceChild(node.parent, node, rightChild);
+        }
+        rightChild.setLeft(node);
+        node.parent = rightChild;
+        // the pair covers the same keys as before, only their split changed
+        rightChild.size = node.size;
+        setSize(node);
+        metrics.rotation();
+        return node == root ? rightChild : root;
+    }
+
+    // Rotate right at node, the mirror of rotateLeft
+    private Node rotateRight(Node node, Node root) {
+        Node leftChild = left(node);
+        node.setLeft(leftChild.getRight());
+        if (node.getLeft() != null) {
+            left(node).parent = node;
+        }
+        leftChild.parent = node.parent;
+        if (node.parent != null) {
+            replaceChild(node.parent, node, leftChild);
+        }
+        leftChild.setRight(node);
+        node.parent = leftChild;
+        // the pair covers the same keys as before, only their split changed
+        leftChild.size = node.size;
+        setSize(node);
+        metrics.rotation();
+        return node == root ? leftChild : root;
+    }
+
+    // Insert a new node with given data
+    // overload insert/remove to add balancing
+    // walks down with a loop and links the node through its parent pointer, no recursion
+    @Override
+    public void insert(String data) {
+        metrics.operation();
+        Node parent = null;
+        Node current = (Node) getRoot();
+        long prefix = BinNode.prefix(data);
+        int cmp = 0;
+        int depth = 0;
+        while (current != null) {
+            parent = current;
+            depth++;
+            metrics.visit();
+            metrics.comparison();
+            cmp = current.compare(data, prefix);
+            if (cmp == 0) {
+                metrics.depth(depth);
+                return; // duplicates are dropped
+            }
+            current = cmp < 0 ? left(current) : right(current);
+        }
+        metrics.depth(depth + 1);
+        Node newNode = new Node(data);
+        newNode.parent = parent;
+        if (parent == null) {
+            setRoot(newNode);
+        } else if (cmp < 0) {
+            parent.setLeft(newNode);
+        } else {
+            parent.setRight(newNode);
+        }
+        addSize(parent, 1);
+        setRoot(fixInsert(newNode, (Node) getRoot()));
+    }
+
+    // Build a valid red-black tree from a list of keys in O(n), replacing the current contents
+    // repeats are dropped like insert would
+    // Same layout as java.util.TreeMap.buildFromSorted: every level is black except
+    // the bottom one when it is only partly filled, which is red
+    @Override
+    public void buildFromSorted(String[] keys) {
+        String[] sorted = distinct(inOrder(keys));
+        int redLevel = 31 - Integer.numberOfLeadingZeros(sorted.length + 1);
+        setRoot(buildFromSorted(sorted, 0, sorted.length - 1, 0, redLevel, null));
+    }
+
+    // Middle key as the root of keys[lo..hi], level counts down from the root at 0
+    private Node buildFromSorted(String[] keys, int lo, int hi, int level, int redLevel, Node parent) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        Node node = new Node(keys[mid]);
+        node.color = level == redLevel ? RED : BLACK;
+        node.parent = parent;
+        node.setLeft(buildFromSorted(keys, lo, mid - 1, level + 1, redLevel, node));
+        node.setRight(buildFromSorted(keys, mid + 1, hi, level + 1, redLevel, node));
+        node.size = hi - lo + 1;
+        return node;
+    }
+
+    // Build from a list of keys in any order on every core, replacing the current contents
+    // The keys are sorted with Arrays.parallelSort and repeats dropped like insert would, then the two halves
+    // of every large subtree are built as fork/join tasks, with the same colors as buildFromSorted
+    public void buildParallel(String[] keys) {
+        String[] sorted = parallelSorted(keys);
+        int redLevel = 31 - Integer.numberOfLeadingZeros(sorted.length + 1);
+        setRoot(ForkJoinPool.commonPool().invoke(new BuildTask(sorted, 0, sorted.length - 1, 0, redLevel, null)));
+    }
+
+    // The subtree for keys[lo..hi], the node is made first so both halves can point back at it,
+    // the left half is forked and the right half built by this thread
+    // never serialized, RecursiveTask is Serializable only by inheritance
+    @SuppressWarnings("serial")
+    private final class BuildTask extends RecursiveTask<Node> {
+        private final String[] keys;
+        private final int lo, hi, level, redLevel;
+        private final Node parent;
+
+        BuildTask(String[] keys, int lo, int hi, int level, int redLevel, Node parent) {
+            this.keys = keys;
+            this.lo = lo;
+            this.hi = hi;
+            this.level = level;
+            this.redLevel = redLevel;
+            this.parent = parent;
+        }
+
+        @Override
+        protected Node compute() {
+            if (hi - lo < PARALLEL_THRESHOLD) {
+                return buildFromSorted(keys, lo, hi, level, redLevel, parent);
+            }
+            int mid = (lo + hi) >>> 1;
+            Node node = new Node(keys[mid]);
+            node.color = level == redLevel ? RED : BLACK;
+            node.parent = parent;
+            BuildTask left = new BuildTask(keys, lo, mid - 1, level + 1, redLevel, node);
+            left.fork();
+            node.setRight(new BuildTask(keys, mid + 1, hi, level + 1, redLevel, node).compute());
+            node.setLeft(left.join());
+            node.size = hi - lo + 1;
+            return node;
+        }
+    }
+
+    // BATCH OPERATIONS
+    /* Function to insert a whole batch of keys in one pass
+     * The batch is sorted and merged in with split and join (a union of the tree and the batch),
+     * so each affected subtree is rebalanced once per join instead of once per key.
+     * Splitting on the middle batch key and recursing on both halves costs O(m log(n / m + 1))
+     * for m keys into n, instead of O(m log n) with a fixInsert for every key.
+     * repeats are dropped like insert would
+     */
+    public void insertAll(String[] keys) {
+        metrics.operation();
+        String[] sorted = distinct(inOrder(keys));
+        publish(union((Node) getRoot(), sorted, 0, sorted.length - 1));
+    }
+
+    /* Function to remove a whole batch of keys in one pass, the difference of the tree and the batch
+     * keys that are not in the tree are ignored like remove would
+     */
+    public void removeAll(String[] keys) {
+        metrics.operation();
+        String[] sorted = distinct(inOrder(keys));
+        publish(difference((Node) getRoot(), sorted, 0, sorted.length - 1));
+    }
+
+    // Make a detached subtree the whole tree
+    private void publish(Node root) {
+        if (root != null) {
+            root.parent = null;
+            root.color = BLACK;
+        }
+        setRoot(root);
+    }
+
+    // The three parts of a split: keys below, the node holding the key if any, keys above
+    private static final class Split {
+        Node left;
+        Node found;
+        Node right;
+    }
+
+    // Merge keys[lo..hi] into the subtree, returns the new detached root
+    private Node union(Node tree, String[] keys, int lo, int hi) {
+        if (lo > hi) {
+            return tree;
+        }
+        if (tree == null) {
+            // nothing to merge with, build the rest of the batch directly
+            int redLevel = 31 - Integer.numberOfLeadingZeros(hi - lo + 2);
+            return buildFromSorted(keys, lo, hi, 0, redLevel, null);
+        }
+        int mid = (lo + hi) >>> 1;
+        Split parts = new Split();
+        split(tree, keys[mid], parts);
+        // a key already in the tree keeps its node, duplicates are dropped
+        Node middle = parts.found != null ? parts.found : new Node(keys[mid]);
+        Node left = union(parts.left, keys, lo, mid - 1);
+        Node right = union(parts.right, keys, mid + 1, hi);
+        return join(left, middle, right);
+    }
+
+    // Take keys[lo..hi] out of the subtree, returns the new detached root
+    private Node difference(Node tree, String[] keys, int lo, int hi) {
+        if (tree == null || lo > hi) {
+            return tree;
+        }
+        int mid = (lo + hi) >>> 1;
+        Split parts = new Split();
+        split(tree, keys[mid], parts);
+        Node left = difference(parts.left, keys, lo, mid - 1);
+        Node right = difference(parts.right, keys, mid + 1, hi);
+        return join(left, right);
+    }
+
+    /* Function to split a detached subtree around key
+     * the nodes on the way down are joined back onto the side they belong to
+     */
+    private void split(Node node, String key, Split parts) {
+        if (node == null) {
+            parts.left = null;
+            parts.found = null;
+            parts.right = null;
+            return;
+        }
+        Node left = detach(left(node));
+        Node right = detach(right(node));
+        int cmp = key.compareTo(node.getData());
+        if (cmp == 0) {
+            parts.left = left;
+            parts.found = node;
+            parts.right = right;
+        } else if (cmp < 0) {
+            split(left, key, parts);
+            parts.right = join(parts.right, node, right);
+        } else {
+            split(right, key, parts);
+            parts.left = join(left, node, parts.left);
+        }
+    }
+
+    /* Function to join two detached subtrees and a middle node, every key in left is below middle
+     * and every key in right is above it
+     * middle goes in red where the shorter tree meets the spine of the taller one (same black height),
+     * then fixInsert repairs the one red-red link that can leave, same as after an insert,
+     * with the taller tree's root as the top, the tree's own root is not touched
+     */
+    private Node join(Node left, Node middle, Node right) {
+        // a black root is always allowed, and it leaves no red root to clash with middle
+        setColor(left, BLACK);
+        setColor(right, BLACK);
+        int leftHeight = blackHeight(left);
+        int rightHeight = blackHeight(right);
+        if (leftHeight == rightHeight) {
+            link(middle, left, right);
+            middle.color = BLACK;
+            middle.parent = null;
+            return middle;
+        }
+        middle.color = RED;
+        if (leftHeight > rightHeight) {
+            // down the right spine of left to the first black node as tall as right
+            Node parent = null;
+            Node node = left;
+            int height = leftHeight;
+            while (height > rightHeight || getColor(node) == RED) {
+                if (node.color == BLACK) {
+                    height--;
+                }
+                parent = node;
+                node = right(node);
+            }
+            link(middle, node, right);
+            parent.setRight(middle);
+            middle.parent = parent;
+            addSize(parent, middle.size - getSize(node));
+            return fixInsert(middle, left);
+        } else {
+            // down the left spine of right to the first black node as tall as left
+            Node parent = null;
+            Node node = right;
+            int height = rightHeight;
+            while (height > leftHeight || getColor(node) == RED) {
+                if (node.color == BLACK) {
+                    height--;
+                }
+                parent = node;
+                node = left(node);
+            }
+            link(middle, left, node);
+            parent.setLeft(middle);
+            middle.parent = parent;
+            addSize(parent, middle.size - getSize(node));
+            return fixInsert(middle, right);
+        }
+    }
+
+    // Join two detached subtrees with no middle node, the smallest key of right is split off to be it
+    private Node join(Node left, Node right) {
+        if (right == null) {
+            return left;
+        }
+        if (left == null) {
+            return right;
+        }
+        Split parts = new Split();
+        split(right, minValueNode(right).getData(), parts);
+        return join(left, parts.found, parts.right);
+    }
+
+    // Black nodes on the path from node down to a leaf, the same on every path
+    private int blackHeight(Node node) {
+        int height = 0;
+        while (node != null) {
+            if (node.color == BLACK) {
+                height++;
+            }
+            node = left(node);
+        }
+        return height;
+    }
+
+    // Cut a subtree loose from its parent
+    private Node detach(Node node) {
+        if (node != null) {
+            node.parent = null;
+        }
+        return node;
+    }
+
+    // Hang left and right under node
+    private void link(Node node, Node left, Node right) {
+        node.setLeft(left);
+        node.setRight(right);
+        node.size = 1 + getSize(left) + getSize(right);
+        if (left != null) {
+            left.parent = node;
+        }
+        if (right != null) {
+            right.parent = node;
+        }
+    }
+
+    // ORDER STATISTICS
+    // every node knows the size of its subtree, so these follow one path from the root
+    @Override
+    public int countNodes() {
+        return getSize((Node) getRoot());
+    }
+
+    @Override
+    public int size() {
+        return getSize((Node) getRoot());
+    }
+
+    // Number of keys less than key
+    @Override
+    public int rank(String key) {
+        int rank = 0;
+        long prefix = BinNode.prefix(key);
+        Node node = (Node) getRoot();
+        while (node != null) {
+            if (node.compare(key, prefix) <= 0) {
+                node = left(node);
+            } else {
+                rank += getSize(left(node)) + 1;
+                node = right(node);
+            }
+        }
+        return rank;
+    }
+
+    // The key with index keys below it, counting from 0
+    @Override
+    public String select(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+        Node node = (Node) getRoot();
+        while (true) {
+            int leftSize = getSize(left(node));
+            if (index < leftSize) {
+                node = left(node);
+            } else if (index == leftSize) {
+                return node.getData();
+            } else {
+                index -= leftSize + 1;
+                node = right(node);
+            }
+        }
+    }
+
+    // Fix the red-black tree after insertion
+    // root is the top of the tree node is in, the whole tree or a detached subtree being joined,
+    // returns the top after the rotations
+    private Node fixInsert(Node node, Node root) {
+        Node parent = null;
+        Node grandparent = null;
+        while (node != root && getColor(node) == RED && getColor(node.parent) == RED) {
+            parent = node.parent;
+            grandparent = parent.parent;
+            // Parent is left child of grandparent
+            if (parent == grandparent.getLeft()) {
+                Node uncle = right(grandparent);
+                // uncle is red, recolor
+                if (getColor(uncle) == RED) {
+                    setColor(uncle, BLACK);
+                    setColor(parent, BLACK);
+                    setColor(grandparent, RED);
+                    node = grandparent;
+                } else {
+                    // uncle is black
+                    if (node == parent.getRight()) {
+                        root = rotateLeft(parent, root);
+                        node = parent;
+                        parent = node.parent;
+                    }
+                    root = rotateRight(grandparent, root);
+                    boolean tempColor = getColor(parent);
+                    setColor(parent, getColor(grandparent));
+                    setColor(grandparent, tempColor);
+                    node = parent;
+                }
+            } else {
+                Node uncle = left(grandparent);
+                // uncle is red, recolor
+                if (getColor(uncle) == RED) {
+                    setColor(uncle, BLACK);
+                    setColor(parent, BLACK);
+                    setColor(grandparent, RED);
+                    node = grandparent;
+                } else {
+                    // uncle is black
+                    if (node == parent.getLeft()) {
+                        root = rotateRight(parent, root);
+                        node = parent;
+                        parent = node.parent;
+                    }
+                    root = rotateLeft(grandparent, root);
+                    boolean tempColor = getColor(parent);
+                    setColor(parent, getColor(grandparent));
+                    setColor(grandparent, tempColor);
+                    node = parent;
+                }
+            }
+        }
+        setColor(root, BLACK);
+        return root;
+    }
+
+    // Remove a node with given data
+    @Override
+    public void remove(String data) {
+        metrics.operation();
+        Node node = (Node) find(data);
+        if (node != null) {
+            deleteNode(node);
+        }
+    }
+
+    // Unlink a node from the tree, same approach as java.util.TreeMap
+    // a node with two children swaps in its successor's data and the successor is unlinked instead
+    private void deleteNode(Node node) {
+        if (node.getLeft() != null && node.getRight() != null) {
+            Node temp = minValueNode(right(node));
+            node.setData(temp.getData());
+            node = temp;
+        }
+        // node now has at most one child
+        Node replacement = node.getLeft() != null ? left(node) : right(node);
+        if (replacement != null) {
+            replacement.parent = node.parent;
+            replaceChild(node.parent, node, replacement);
+            addSize(node.parent, -1);
+            node.setLeft(null);
+            node.setRight(null);
+            node.parent = null;
+            if (node.color == BLACK) {
+                setRoot(fixDelete(replacement, (Node) getRoot()));
+            }
+        } else if (node.parent == null) {
+            // removing the only node
+            setRoot(null);
+        } else {
+            // leaf: fix up while it is still attached so it can act as the phantom black node
+            // it already counts as no keys, so rotations around it keep the sizes right
+            node.size = 0;
+            addSize(node.parent, -1);
+            if (node.color == BLACK) {
+                setRoot(fixDelete(node, (Node) getRoot()));
+            }
+            if (node.parent != null) {
+                replaceChild(node.parent, node, null);
+                node.parent = null;
+            }
+        }
+    }
+
+    // Find the node with the minimum value
+    private Node minValueNode(Node node) {
+        Node current = node;
+        while (current.getLeft() != null) {
+            current = left(current);
+            metrics.visit();
+        }
+        return current;
+    }
+
+    // color does not feel like a real word anymore
+    // balances the tree after deletion
+    // i definitely spent way too long debugging this with copilot because i cannot read
+    // debugged with copilot
+    // source: https://www.geeksforgeeks.org/red-black-tree-set-3-delete-2/
+    // returns the root after the rotations, same as fixInsert
+    private Node fixDelete(Node node, Node root) {
+        Node sibling;
+        while (node != root && getColor(node) == BLACK) {
+            if (node == node.parent.getLeft()) {
+                sibling = right(node.parent);
+                // if sibling is red
+                if (getColor(sibling) == RED) {
+                    setColor(sibling, BLACK);
+                    setColor(node.parent, RED);
+                    root = rotateLeft(node.parent, root);
+                    sibling = right(node.parent);
+                }
+                // if both children of sibling are black
+                if (getColor(left(sibling)) == BLACK && getColor(right(sibling)) == BLACK) {
+                    setColor(sibling, RED);
+                    node = node.parent;
+                } else {
+                    // if sibling's right child is black
+                    if (getColor(right(sibling)) == BLACK) {
+                        setColor(left(sibling), BLACK);
+                        setColor(sibling, RED);
+                        root = rotateRight(sibling, root);
+                        sibling = right(node.parent);
+                    }
+                    setColor(sibling, getColor(node.parent));
+                    setColor(node.parent, BLACK);
+                    setColor(right(sibling), BLACK);
+                    root = rotateLeft(node.parent, root);
+                    node = root;
+                }
+            } else {
+                sibling = left(node.parent);
+                // if sibling is red
+                if (getColor(sibling) == RED) {
+                    setColor(sibling, BLACK);
+                    setColor(node.parent, RED);
+                    root = rotateRight(node.parent, root);
+                    sibling = left(node.parent);
+                }
+                // if both children of sibling are black
+                if (getColor(left(sibling)) == BLACK && getColor(right(sibling)) == BLACK) {
+                    setColor(sibling, RED);
+                    node = node.parent;
+                } else {
+                    // if sibling's left child is black
+                    if (getColor(left(sibling)) == BLACK) {
+                        setColor(right(sibling), BLACK);
+                        setColor(sibling, RED);
+                        root = rotateLeft(sibling, root);
+                        sibling = left(node.parent);
+                    }
+                    setColor(sibling, getColor(node.parent));
+                    setColor(node.parent, BLACK);
+                    setColor(left(sibling), BLACK);
+                    root = rotateRight(node.parent, root);
+                    node = root;
+                }
+            }
+        }
+        setColor(node, BLACK);
+        return root;
+}
+}
\ No newline at end of file
@@ -0,0 +1,216 @@
+package treespeed;
+
+/*
+ * Mikey Dimucci
+ * Splay tree
+ *
+ * No balance information at all: every insert, remove and search splays the key it looked for
+ * (or the last node on its path when the key is missing) up to the root.
+ * Keys that are used often stay near the top, so a skewed stream of lookups costs
+ * about the entropy of the stream instead of log n, amortized O(log n) either way.
+ * Splaying is top-down (Sleator and Tarjan): one pass from the root that rotates pairs
+ * of nodes on the way and hangs everything else on a left and a right tree, no recursion.
+ *
+ * Conditional splaying: with a read depth, a search whose key (or miss) is within that many
+ * levels of the root leaves the tree as it is, only deeper ones splay. Hot keys stop
+ * being rotated back and forth once they are near the top, so reads mostly stop writing.
+ * Inserts and removes always splay.
+ * Duplicate keys are not allowed, same as AVLTree.
+ * Searches change the tree, so it can only be shared behind a lock that searches take exclusively.
+ */
+public class SplayTree extends BinaryTree {
+
+    // searches that end within this many levels of the root do not splay, 0 splays every search
+    private final int readDepth;
+
+    // holds the left and right trees during a splay, reused by every operation
+    private final BinNode header = new BinNode();
+
+    public SplayTree() {
+        this(0);
+    }
+
+    public SplayTree(int readDepth) {
+        super();
+        if (readDepth < 0) {
+            throw new IllegalArgumentException("Read depth must not be negative: " + readDepth);
+        }
+        this.readDepth = readDepth;
+    }
+
+    public int getReadDepth() {
+        return readDepth;
+    }
+
+    // Public method to insert a key, the new key ends up at the root
+    @Override
+    public void insert(String key) {
+        metrics.operation();
+        BinNode root = getRoot();
+        if (root == null) {
+            setRoot(new BinNode(key));
+            return;
+        }
+        long prefix = BinNode.prefix(key);
+        root = splay(root, key, prefix);
+        int cmp = root.compare(key, prefix);
+        if (cmp == 0) {
+            setRoot(root);
+            return; // Duplicate keys are not allowed
+        }
+        // the old root is the closest key, it and one of its subtrees go under the new node
+        BinNode node = new BinNode(key);
+        if (cmp < 0) {
+            node.setLeft(root.getLeft());
+            node.setRight(root);
+            root.setLeft(null);
+        } else {
+            node.setRight(root.getRight());
+            node.setLeft(root);
+            root.setRight(null);
+        }
+        setRoot(node);
+    }
+
+    // Public method to remove a key
+    // the key is splayed to the root, then the largest key of its left subtree is splayed
+    // up in there (it has no right child) and takes the right subtree
+    @Override
+    public void remove(String key) {
+        metrics.operation();
+        BinNode root = getRoot();
+        if (root == null) {
+            return;
+        }
+        long prefix = BinNode.prefix(key);
+        root = splay(root, key, prefix);
+        if (root.compare(key, prefix) != 0) {
+            setRoot(root);
+            return;
+        }
+        if (root.getLeft() == null) {
+            setRoot(root.getRight());
+        } else {
+            BinNode left = splay(root.getLeft(), key, prefix);
+            left.setRight(root.getRight());
+            setRoot(left);
+        }
+    }
+
+    /* Function to find the node holding a value, search comes here
+     * splays unless the walk ends within readDepth levels of the root
+     */
+    @Override
+    protected BinNode find(String val) {
+        BinNode root = getRoot();
+        if (root == null) {
+            return null;
+        }
+        long prefix = BinNode.prefix(val);
+        if (readDepth > 0) {
+            // look first, without changing anything
+            BinNode r = root;
+            int depth = 0;
+            while (r != null && depth < readDepth) {
+                depth++;
+                metrics.visit();
+                metrics.comparison();
+                int cmp = r.compare(val, prefix);
+                if (cmp == 0) {
+                    metrics.depth(depth);
+                    return r;
+                }
+                r = cmp < 0 ? r.getLeft() : r.getRight();
+            }
+            if (r == null) {
+                metrics.depth(depth);
+                return null;
+            }
+        }
+        root = splay(root, val, prefix);
+        setRoot(root);
+        return root.compare(val, prefix) == 0 ? root : null;
+    }
+
+    /* Function to splay the subtree at t for key, returns the new subtree root
+     * The new root holds key, or the last key on its search path when key is missing.
+     * Nodes left of the path are linked into the left tree (header's right, built at its largest end)
+     * and nodes right of it into the right tree (header's left, built at its smallest end),
+     * a zig-zig on the way is a single rotation first.
+     */
+    private BinNode splay(BinNode t, String key, long prefix) {
+        BinNode l = header;
+        BinNode r = header;
+        int depth = 1;
+        while (true) {
+            metrics.visit();
+            metrics.comparison();
+            int cmp = t.compare(key, prefix);
+            if (cmp < 0) {
+                if (t.getLeft() == null) {
+                    break;
+                }
+                metrics.comparison();
+                if (t.getLeft().compare(key, prefix) < 0) {
+                    // zig-zig, rotate right
+                    BinNode y = t.getLeft();
+                    t.setLeft(y.getRight());
+                    y.setRight(t);
+                    t = y;
+                    metrics.rotation();
+                    metrics.visit();
+                    depth++;
+                    if (t.getLeft() == null) {
+                        break;
+                    }
+                }
+                // link right
+                r.setLeft(t);
+                r = t;
+                t = t.getLeft();
+            } else if (cmp > 0) {
+                if (t.getRight() == null) {
+                    break;
+                }
+                metrics.comparison();
+                if (t.getRight().compare(key, prefix) > 0) {
+                    // zig-zig, rotate left
+                    BinNode y = t.getRight();
+                    t.setRight(y.getLeft());
+                    y.setLeft(t);
+                    t = y;
+                    metrics.rotation();
+                    metrics.visit();
+                    depth++;
+                    if (t.getRight() == null) {
+                        break;
+                    }
+                }
+                // link left
+                l.setRight(t);
+                l = t;
+                t = t.getRight();
+            } else {
+                break;
+            }
+            depth++;
+        }
+        metrics.depth(depth);
+        // reassemble
+        l.setRight(t.getLeft());
+        r.setLeft(t.getRight());
+        t.setLeft(header.getRight());
+        t.setRight(header.getLeft());
+        // let go of the nodes so the header does not keep removed ones alive
+        header.setLeft(null);
+        header.setRight(null);
+        return t;
+    }
+
+    // Build from a list of keys in O(n), replacing the current contents
+    // Duplicate keys are not allowed, so repeats are dropped like insert would
+    @Override
+    public void buildFromSorted(String[] keys) {
+        super.buildFromSorted(distinct(inOrder(keys)));
+    }
+}
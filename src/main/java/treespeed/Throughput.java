@@ -0,0 +1,125 @@
+package treespeed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi threaded throughput run: every tree is shared by 1, 2, 4 ... up to all cores threads
+ * for a fixed time, each thread doing a random mix of searches and writes, and the total ops/sec
+ * is reported per thread count. Shows where each tree stops scaling.
+ * The single threaded trees are shared through a LockedTree, the skip list and the persistent AVL tree are used as is.
+ * e.g. "java -cp target/classes treespeed.Throughput 2 90 100000"
+ * for 2 seconds per run, 90% searches, 100000 keys.
+ * A fourth argument caps the thread count at something other than the core count.
+ *
+ * @author (Mikey Dimucci)
+ * @version (2024)
+ */
+public class Throughput
+{
+    // seed for the key pool so runs can be compared
+    private static final long SEED = 42L;
+
+    // untimed run before the first timed one, so every tree is measured compiled
+    private static final long WARMUP_MILLIS = 1000;
+
+    private Throughput() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 2;
+        int readPercent = args.length > 1 ? Integer.parseInt(args[1]) : 90;
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+        int maxThreads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        if (readPercent < 0 || readPercent > 100) {
+            throw new IllegalArgumentException("Read percent out of range: " + readPercent);
+        }
+        long millis = (long) (seconds * 1000);
+
+        // twice as many titles as the tree holds, half of every search misses
+        // and writes insert or remove at random, so the size stays about the same
+        String[] pool = new KeyGenerator(SEED).titles(2 * size, KeyGenerator.Order.RANDOM);
+        int[] threadCounts = threadCounts(maxThreads);
+
+        System.out.println(size + " keys, " + readPercent + "% searches, " + seconds + " seconds per run");
+        for (BinaryTree tree : Main.newTrees()) {
+            String name = Main.name(tree);
+            BinaryTree shared = tree instanceof LockFreeSkipList || tree instanceof PersistentAVLTree ? tree : new LockedTree(tree);
+            for (int i = 0; i < size; i++) {
+                shared.insert(pool[i]);
+            }
+            System.out.println(name + ":");
+            run(shared, pool, readPercent, threadCounts[threadCounts.length - 1], WARMUP_MILLIS);
+            for (int threads : threadCounts) {
+                long ops = run(shared, pool, readPercent, threads, millis);
+                System.out.println(" " + threads + " threads: " + (long) (ops / seconds) + " ops/sec");
+            }
+        }
+    }
+
+    // 1, 2, 4 ... and max itself
+    private static int[] threadCounts(int max) {
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < max; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(max);
+        int[] result = new int[counts.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+
+    /* Function to run threads against the tree for millis and count the operations done
+     * all threads are started first and released together
+     */
+    private static long run(BinaryTree tree, String[] pool, int readPercent, int threads, long millis)
+            throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder total = new LongAdder();
+        Thread[] workers = new Thread[threads];
+        // written once by this thread, read by every worker
+        Stopper stopper = new Stopper();
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long ops = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (!stopper.stop) {
+                    String key = pool[random.nextInt(pool.length)];
+                    int roll = random.nextInt(100);
+                    if (roll < readPercent) {
+                        tree.search(key);
+                    } else if (random.nextBoolean()) {
+                        tree.insert(key);
+                    } else {
+                        tree.remove(key);
+                    }
+                    ops++;
+                }
+                total.add(ops);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        Thread.sleep(millis);
+        stopper.stop = true;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return total.sum();
+    }
+
+    // stop flag shared with the workers
+    private static final class Stopper {
+        volatile boolean stop;
+    }
+}
@@ -0,0 +1,207 @@
+package treespeed;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH suite for the trees, replacing the one-shot nanoTime numbers in Main.
+ * Build with "mvn package" and run with "java -jar target/benchmarks.jar",
+ * e.g. "java -jar target/benchmarks.jar -p size=100000 -p tree=AVLTree".
+ *
+ * insert, buildFromSorted and remove time a whole tree of size keys per call,
+ * the searches time a single lookup against a tree built once per trial,
+ * page times one subRange seek plus reading up to PAGE keys from it,
+ * select times finding the key at an index (O(log n) only where subtree sizes are kept).
+ * -p order=zipf makes the lookups a skewed stream with a few hot keys, where the splay trees
+ * are meant to beat the balanced ones.
+ *
+ * @author (Mikey Dimucci)
+ * @version (2024)
+ */
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TreeBenchmark {
+
+    // seed for the generator so every fork sees the same dataset
+    private static final long SEED = 42L;
+
+    // keys read per page
+    private static final int PAGE = 100;
+
+    // searches this close to the root do not splay in the ConditionalSplayTree runs
+    private static final int SPLAY_READ_DEPTH = 8;
+
+    @State(Scope.Benchmark)
+    public static class Dataset {
+        @Param({"BinaryTree", "AVLTree", "RedBlackTree", "BPlusTree", "LockFreeSkipList", "PersistentAVLTree", "SplayTree", "ConditionalSplayTree"})
+        public String tree;
+
+        @Param({"1000", "10000"})
+        public int size;
+
+        // order the keys are inserted in, one of KeyGenerator.Order:
+        // sorted like SciFiLiSorted.txt, random like SciFiLiBooks.txt, or reverse, nearly_sorted, zipf
+        @Param({"sorted", "random"})
+        public String order;
+
+        String[] keys;     // insertion order
+        String[] lookups;  // keys to search for and remove, every key shuffled or the zipf stream itself
+        String[] misses;   // keys that fall between stored keys
+        String[] pageEnds; // for each lookup, the key PAGE places after it, or the last key
+
+        @Setup(Level.Trial)
+        public void makeKeys() {
+            KeyGenerator generator = new KeyGenerator(SEED);
+            KeyGenerator.Order insertOrder = KeyGenerator.Order.valueOf(order.toUpperCase());
+            keys = generator.titles(size, insertOrder);
+            lookups = insertOrder == KeyGenerator.Order.ZIPF ? keys.clone() : generator.titles(size, KeyGenerator.Order.RANDOM);
+            misses = generator.missingTitles(size);
+            String[] sorted = keys.clone();
+            Arrays.sort(sorted);
+            pageEnds = new String[size];
+            for (int i = 0; i < size; i++) {
+                int at = Arrays.binarySearch(sorted, lookups[i]);
+                pageEnds[i] = sorted[Math.min(at + PAGE, size - 1)];
+            }
+        }
+
+        BinaryTree newTree() {
+            switch (tree) {
+                case "BinaryTree":
+                    return new BinaryTree();
+                case "AVLTree":
+                    return new AVLTree();
+                case "RedBlackTree":
+                    return new RedBlackTree();
+                case "BPlusTree":
+                    return new BPlusTree();
+                case "LockFreeSkipList":
+                    return new LockFreeSkipList();
+                case "PersistentAVLTree":
+                    return new PersistentAVLTree();
+                case "SplayTree":
+                    return new SplayTree();
+                case "ConditionalSplayTree":
+                    return new SplayTree(SPLAY_READ_DEPTH);
+                default:
+                    throw new IllegalArgumentException("Unknown tree: " + tree);
+            }
+        }
+
+        BinaryTree buildTree() {
+            BinaryTree t = newTree();
+            for (String key : keys) {
+                t.insert(key);
+            }
+            return t;
+        }
+    }
+
+    // tree built once per trial for the lookups
+    @State(Scope.Thread)
+    public static class Built {
+        BinaryTree tree;
+        // counted once here, size() walks every node of the trees that keep no count
+        int size;
+        int next;
+
+        @Setup(Level.Trial)
+        public void build(Dataset data) {
+            tree = data.buildTree();
+            size = tree.size();
+        }
+    }
+
+    // fresh tree for every remove call, the build is not timed
+    @State(Scope.Thread)
+    public static class Filled {
+        BinaryTree tree;
+
+        @Setup(Level.Invocation)
+        public void build(Dataset data) {
+            tree = data.buildTree();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BinaryTree insert(Dataset data) {
+        return data.buildTree();
+    }
+
+    // one pass bulk load, the unsorted order also pays for the sort fallback
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BinaryTree buildFromSorted(Dataset data) {
+        BinaryTree t = data.newTree();
+        t.buildFromSorted(data.keys);
+        return t;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String searchHit(Dataset data, Built built) {
+        String key = data.lookups[built.next];
+        built.next = built.next + 1 == data.size ? 0 : built.next + 1;
+        return built.tree.search(key);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String searchMiss(Dataset data, Built built) {
+        String key = data.misses[built.next];
+        built.next = built.next + 1 == data.size ? 0 : built.next + 1;
+        return built.tree.search(key);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String page(Dataset data, Built built) {
+        Iterator<String> it = built.tree.subRange(data.lookups[built.next], data.pageEnds[built.next]);
+        built.next = built.next + 1 == data.size ? 0 : built.next + 1;
+        String last = null;
+        while (it.hasNext()) {
+            last = it.next();
+        }
+        return last;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String select(Dataset data, Built built) {
+        int index = built.next;
+        built.next = built.next + 1 == data.size ? 0 : built.next + 1;
+        return built.tree.select(index % built.size);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BinaryTree remove(Dataset data, Filled filled) {
+        for (String key : data.lookups) {
+            filled.tree.remove(key);
+        }
+        return filled.tree;
+    }
+}
@@ -0,0 +1,106 @@
+package treespeed;
+
+/**
+ * Operation counters for one tree: key comparisons, nodes visited, rotations, recolorings
+ * and the deepest path walked, so the timings in Main can be explained instead of guessed at.
+ * Off unless the JVM is started with -Dtreespeed.metrics=true. ENABLED is a static final,
+ * so when it is off the JIT folds every counting call down to nothing.
+ * Counted by BinaryTree, AVLTree and RedBlackTree in insert, remove and search.
+ *
+ * @author (Mikey Dimucci)
+ * @version (2024)
+ */
+public final class TreeMetrics
+{
+    public static final boolean ENABLED = Boolean.getBoolean("treespeed.metrics");
+
+    private long operations;
+    private long comparisons;
+    private long nodesVisited;
+    private long rotations;
+    private long recolors;
+    private int maxDepth;
+
+    // one insert, remove or search
+    void operation() {
+        if (ENABLED) {
+            operations++;
+        }
+    }
+
+    // one key compared against a node's key
+    void comparison() {
+        if (ENABLED) {
+            comparisons++;
+        }
+    }
+
+    // one step onto a node
+    void visit() {
+        if (ENABLED) {
+            nodesVisited++;
+        }
+    }
+
+    void rotation() {
+        if (ENABLED) {
+            rotations++;
+        }
+    }
+
+    // a node that actually changed color
+    void recolor() {
+        if (ENABLED) {
+            recolors++;
+        }
+    }
+
+    // nodes on the path an operation walked
+    void depth(int depth) {
+        if (ENABLED && depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    public long getRotations() {
+        return rotations;
+    }
+
+    public long getRecolors() {
+        return recolors;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /* Function to zero every counter, for the start of a new phase */
+    public void reset() {
+        operations = 0;
+        comparisons = 0;
+        nodesVisited = 0;
+        rotations = 0;
+        recolors = 0;
+        maxDepth = 0;
+    }
+
+    // averages per operation
+    @Override
+    public String toString() {
+        double ops = Math.max(operations, 1);
+        return String.format("%d ops, per op: %.2f comparisons, %.2f nodes visited, %.2f rotations, %.2f recolors, max depth %d",
+                operations, comparisons / ops, nodesVisited / ops, rotations / ops, recolors / ops, maxDepth);
+    }
+}
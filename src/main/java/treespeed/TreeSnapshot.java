@@ -0,0 +1,246 @@
+package treespeed;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot of a tree's keys, so a run can start from the last saved state
+ * instead of reading the title files and inserting key by key.
+ * The file holds the keys in order, each as its UTF-8 bytes after a 4 byte length,
+ * behind a 32 byte header: magic, format version, a CRC32C of everything after it,
+ * a generation number, key count and payload length. The generation is not used here,
+ * LoggedTree stamps it on its snapshot and its log to tell which one is newer.
+ * Loading maps the file, checks all of that and hands the keys
+ * to buildFromSorted, which builds any of the trees in O(n) without a single rotation.
+ * Saving walks the tree twice, once to add up the length of the file and once to encode
+ * the keys straight into the mapped file, so no copy of the keys is held in memory.
+ * A snapshot is written to a temporary file next to the target and moved over it at the end,
+ * so a crash while saving leaves the old snapshot as it was.
+ * Files are mapped in one piece, so a snapshot is at most 2 GB.
+ * A key with an unpaired surrogate has no UTF-8 form, so saving refuses it instead of
+ * writing something that would load as a different key.
+ *
+ * @author (Mikey Dimucci)
+ * @version (2024)
+ */
+public class TreeSnapshot
+{
+    // "TREE"
+    private static final int MAGIC = 0x54524545;
+    // bump when the layout changes, load refuses other versions
+    private static final int VERSION = 2;
+    // magic, version, checksum, generation, key count, payload length
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 4 + 8;
+    // the checksum covers everything from here on, header fields included
+    private static final int CHECKED_FROM = 12;
+
+    private TreeSnapshot() {
+    }
+
+    /* Function to save every key of a tree, in order, to a snapshot file of generation 0
+     * returns the number of keys saved
+     */
+    public static int save(BinaryTree tree, String filename) throws IOException
+    {
+        return save(tree, filename, 0);
+    }
+
+    /* Function to save every key of a tree, in order, to a snapshot file stamped with generation
+     * returns the number of keys saved
+     */
+    public static int save(BinaryTree tree, String filename, long generation) throws IOException
+    {
+        int count = 0;
+        long payloadSize = 0;
+        for (String key : tree) {
+            count++;
+            payloadSize += 4 + utf8Length(key);
+        }
+        long fileSize = HEADER_SIZE + payloadSize;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot too large to map: " + fileSize + " bytes");
+        }
+
+        Path target = Paths.get(filename).toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+                CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPORT)
+                        .onUnmappableCharacter(CodingErrorAction.REPORT);
+                buffer.position(HEADER_SIZE);
+                int saved = 0;
+                for (String key : tree) {
+                    if (++saved > count) {
+                        throw new IOException("Tree changed while it was being saved");
+                    }
+                    int start = buffer.position();
+                    buffer.position(start + 4);
+                    encoder.reset();
+                    CoderResult result = encoder.encode(CharBuffer.wrap(key), buffer, true);
+                    if (result.isUnderflow()) {
+                        result = encoder.flush(buffer);
+                    }
+                    if (!result.isUnderflow()) {
+                        throw new IOException("Tree changed while it was being saved");
+                    }
+                    buffer.putInt(start, buffer.position() - start - 4);
+                }
+                if (saved != count || buffer.hasRemaining()) {
+                    throw new IOException("Tree changed while it was being saved");
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putLong(12, generation);
+                buffer.putInt(20, count);
+                buffer.putLong(24, payloadSize);
+                buffer.putInt(8, checksum(buffer));
+                buffer.force();
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(target.getParent());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return count;
+    }
+
+    // Bytes key takes in UTF-8, counted from its chars without encoding it
+    private static int utf8Length(String key) throws IOException {
+        int length = key.length();
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c >= 0x80) {
+                length++;
+            }
+            if (c >= 0x800) {
+                length++;
+            }
+            if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < key.length() && Character.isLowSurrogate(key.charAt(i + 1))) {
+                    // a pair is 4 bytes for 2 chars, the 2 counted for this char plus the 2 of the next
+                    i++;
+                } else {
+                    throw new IOException("Key has an unpaired surrogate at char " + i + ", it cannot be saved as UTF-8");
+                }
+            }
+        }
+        return length;
+    }
+
+    /* Function to fsync a directory, so the move of the new snapshot into it survives a crash too
+     * some platforms cannot open a directory, the move is still atomic there, only its durability waits for the OS
+     */
+    private static void forceDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported here
+        }
+    }
+
+    /* Function to replace the contents of a tree with the keys of a snapshot file
+     * throws IOException when the file is not a snapshot, has another version, is cut short, fails its checksum
+     * or holds a different number of keys than its header says,
+     * the tree is left as it was then
+     * returns the number of keys loaded
+     */
+    public static int load(BinaryTree tree, String filename) throws IOException
+    {
+        String[] keys = read(filename);
+        tree.buildFromSorted(keys);
+        return keys.length;
+    }
+
+    /* Function to get the generation a snapshot file was saved with
+     * only the header is read, load checks the rest
+     */
+    public static long generation(String filename) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            return map(channel, filename).getLong(12);
+        }
+    }
+
+    /* Function to read the keys of a snapshot file, in order */
+    public static String[] read(String filename) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = map(channel, filename);
+            int count = buffer.getInt(20);
+            long payloadSize = buffer.getLong(24);
+            if (count < 0 || payloadSize != buffer.capacity() - HEADER_SIZE) {
+                throw new IOException("Snapshot is truncated: " + filename);
+            }
+            if (buffer.getInt(8) != checksum(buffer)) {
+                throw new IOException("Snapshot checksum mismatch: " + filename);
+            }
+
+            String[] keys = new String[count];
+            byte[] bytes = new byte[64];
+            buffer.position(HEADER_SIZE);
+            for (int i = 0; i < count; i++) {
+                if (buffer.remaining() < 4) {
+                    throw new IOException("Snapshot is truncated: " + filename);
+                }
+                int length = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    throw new IOException("Snapshot is truncated: " + filename);
+                }
+                if (length > bytes.length) {
+                    bytes = new byte[Math.max(length, 2 * bytes.length)];
+                }
+                buffer.get(bytes, 0, length);
+                keys[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+            }
+            // a count lower than the keys in the payload leaves some behind
+            if (buffer.hasRemaining()) {
+                throw new IOException("Snapshot key count does not match its payload: " + filename);
+            }
+            return keys;
+        }
+    }
+
+    // Map a whole snapshot file, checking its magic and version
+    private static MappedByteBuffer map(FileChannel channel, String filename) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            throw new IOException("Not a tree snapshot: " + filename);
+        }
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot too large to map: " + fileSize + " bytes");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a tree snapshot: " + filename);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " in " + filename);
+        }
+        return buffer;
+    }
+
+    // CRC32C of everything after the checksum, the generation, count and payload length too
+    private static int checksum(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(CHECKED_FROM).limit(buffer.capacity());
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,521 @@
+package treespeed;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+/**
+ * This will test insertions, removals, traversals, searching, and node counting.
+ * 
+ * @author (Mikey Dimucci)
+ * @version (2023)
+ */
+public class testtree {
+
+    public static void main(String[] args) {
+        // Test BinaryTree
+        System.out.println("Testing BinaryTree:");
+        BinaryTree binaryTree = new BinaryTree();
+        testTree(binaryTree);
+
+        // Test AVLTree
+        System.out.println("\nTesting AVLTree:");
+        AVLTree avlTree = new AVLTree();
+        testTree(avlTree);
+
+        // Test RedBlackTree
+        System.out.println("\nTesting RedBlackTree:");
+        RedBlackTree redBlackTree = new RedBlackTree();
+        testTree(redBlackTree);
+
+        // batch operations
+        System.out.println("\nBatch inserting and removing...");
+        redBlackTree.insertAll(new String[] { "Q", "B", "Z", "D" });
+        redBlackTree.removeAll(new String[] { "A", "Q", "Y" });
+        redBlackTree.inorder();  // Expected: B C D E M R S Z
+        System.out.println();
+
+        // Test BPlusTree, small fanout so the inserts split nodes
+        System.out.println("\nTesting BPlusTree:");
+        BPlusTree bPlusTree = new BPlusTree(4);
+        testTree(bPlusTree);
+
+        // Test LockFreeSkipList
+        System.out.println("\nTesting LockFreeSkipList:");
+        LockFreeSkipList skipList = new LockFreeSkipList();
+        testTree(skipList);
+
+        // Test PersistentAVLTree, the snapshot keeps the contents from before the removals
+        System.out.println("\nTesting PersistentAVLTree:");
+        PersistentAVLTree persistentTree = new PersistentAVLTree();
+        persistentTree.insert("B");
+        PersistentAVLTree snapshot = persistentTree.snapshot();
+        persistentTree.insert("Y");
+        System.out.println("Snapshot holds 'Y'? " + (snapshot.search("Y") != null));  // Expected: false
+        persistentTree.remove("B");
+        persistentTree.remove("Y");
+        testTree(persistentTree);
+        System.out.print("Snapshot: ");
+        snapshot.inorder();  // Expected: B
+        System.out.println();
+
+        // Test IntAVLTree, the removed slots are reused so the arrays do not grow
+        System.out.println("\nTesting IntAVLTree:");
+        testIntTree(new IntAVLTree());
+        IntAVLTree intAvlTree = new IntAVLTree(8);
+        for (int key = 1; key <= 8; key++) {
+            intAvlTree.insert(key);
+        }
+        for (int key = 1; key <= 4; key++) {
+            intAvlTree.remove(key);
+        }
+        for (int key = 11; key <= 14; key++) {
+            intAvlTree.insert(key);
+        }
+        System.out.println("Capacity after removing 4 keys and inserting 4 more: " + intAvlTree.getCapacity());  // Expected: 8
+        System.out.print("In-order traversal: ");
+        intAvlTree.inorder();  // Expected: 5 6 7 8 11 12 13 14
+        System.out.println();
+
+        // Test OffHeapRedBlackTree, removed records are reused by the next inserts
+        System.out.println("\nTesting OffHeapRedBlackTree:");
+        testIntTree(new OffHeapRedBlackTree());
+        OffHeapRedBlackTree offHeapTree = new OffHeapRedBlackTree(8);
+        for (int key = 1; key <= 8; key++) {
+            offHeapTree.insert(key);
+        }
+        for (int key = 1; key <= 4; key++) {
+            offHeapTree.remove(key);
+        }
+        for (int key = 11; key <= 14; key++) {
+            offHeapTree.insert(key);
+        }
+        System.out.println("Capacity after removing 4 keys and inserting 4 more: " + offHeapTree.getCapacity());  // Expected: 8
+        System.out.print("In-order traversal: ");
+        offHeapTree.inorder();  // Expected: 5 6 7 8 11 12 13 14
+        System.out.println();
+
+        // Test IntBPlusTree, small fanout so the inserts split nodes and the removes merge them
+        System.out.println("\nTesting IntBPlusTree:");
+        testIntTree(new IntBPlusTree(4));
+        IntBPlusTree intBPlusTree = new IntBPlusTree(4);
+        for (int key = 1; key <= 20; key++) {
+            intBPlusTree.insert(key);
+        }
+        for (int key = 2; key <= 20; key += 3) {
+            intBPlusTree.remove(key);
+        }
+        System.out.print("In-order traversal along the leaves: ");
+        intBPlusTree.inorder();  // Expected: 1 3 4 6 7 9 10 12 13 15 16 18 19
+        System.out.println();
+
+        // Test SplayTree, a search brings the key up to the root
+        System.out.println("\nTesting SplayTree:");
+        SplayTree splayTree = new SplayTree();
+        testTree(splayTree);
+        splayTree.search("A");
+        System.out.println("Root after searching for 'A': " + splayTree.getRoot().getData());  // Expected: A
+
+        // Test SplayTree with conditional splaying, a search that ends within 2 levels of the root does not splay
+        System.out.println("\nTesting SplayTree with read depth 2:");
+        testTree(new SplayTree(2));
+        // inserting in order leaves a left chain G F E D C B A
+        SplayTree readDepthTree = new SplayTree(2);
+        for (String key : new String[]{"A", "B", "C", "D", "E", "F", "G"}) {
+            readDepthTree.insert(key);
+        }
+        readDepthTree.search("F");
+        System.out.println("Root after searching for 'F': " + readDepthTree.getRoot().getData());  // Expected: G
+        readDepthTree.search("A");
+        System.out.println("Root after searching for 'A': " + readDepthTree.getRoot().getData());  // Expected: A
+
+        // Test CachedTree, room for 2 keys: searching A, B, A, C, B makes the two policies differ
+        System.out.println("\nTesting CachedTree with LRU:");
+        CachedTree lruTree = testCachedTree(CachedTree.Policy.LRU);
+        // C pushes out B, then B pushes out A
+        System.out.println("Hits: " + lruTree.getHits() + ", misses: " + lruTree.getMisses());  // Expected: Hits: 1, misses: 4
+        System.out.println("Evictions: " + lruTree.getEvictions() + ", rejections: " + lruTree.getRejections());  // Expected: Evictions: 2, rejections: 0
+
+        System.out.println("\nTesting CachedTree with TINY_LFU:");
+        CachedTree lfuTree = testCachedTree(CachedTree.Policy.TINY_LFU);
+        // C was searched no more often than B, so it is not let in and B is still cached
+        System.out.println("Hits: " + lfuTree.getHits() + ", misses: " + lfuTree.getMisses());  // Expected: Hits: 2, misses: 3
+        System.out.println("Evictions: " + lfuTree.getEvictions() + ", rejections: " + lfuTree.getRejections());  // Expected: Evictions: 0, rejections: 1
+
+        // Test FilteredTree, removing a key takes its counts back out of the filter
+        System.out.println("\nTesting FilteredTree:");
+        FilteredTree filteredTree = new FilteredTree(new AVLTree(), 100, 0.01);
+        filteredTree.insert("M");
+        filteredTree.insert("R");
+        filteredTree.remove("M");
+        System.out.println("Searching for 'M' after removing it: " + filteredTree.search("M"));  // Expected: null
+        System.out.println("Searches the filter answered: " + filteredTree.getFiltered());  // Expected: 1
+        filteredTree.insert("M");
+        System.out.println("Searching for 'M' after inserting it again: " + filteredTree.search("M"));  // Expected: M
+        System.out.println("Searching for 'R': " + filteredTree.search("R"));  // Expected: R
+
+        // BinaryTree keeps duplicates, the filter has to keep the key until the last copy goes
+        FilteredTree filteredBinaryTree = new FilteredTree(new BinaryTree(), 100, 0.01);
+        filteredBinaryTree.insert("M");
+        filteredBinaryTree.insert("M");
+        filteredBinaryTree.remove("M");
+        System.out.println("Searching for 'M' after inserting it twice and removing it once: " + filteredBinaryTree.search("M"));  // Expected: M
+        filteredBinaryTree.remove("M");
+        System.out.println("Searching for 'M' after removing it again: " + filteredBinaryTree.search("M"));  // Expected: null
+
+        // Test LoggedTree, a reopened directory gives back the tree as it was at the last sync
+        System.out.println("\nTesting LoggedTree:");
+        testLoggedTree();
+
+        // Test buildParallel, with enough keys that the halves are built as separate tasks
+        System.out.println("\nTesting buildParallel:");
+        // key00000 to key09999, each twice, in scrambled order
+        String[] shuffled = new String[20000];
+        for (int i = 0; i < shuffled.length; i++) {
+            shuffled[i] = String.format("key%05d", i * 7919 % 10000);
+        }
+        AVLTree parallelAvlTree = new AVLTree();
+        parallelAvlTree.buildParallel(shuffled);
+        AVLTree serialAvlTree = new AVLTree();
+        serialAvlTree.buildFromSorted(shuffled);
+        System.out.println("AVLTree size: " + parallelAvlTree.size());  // Expected: 10000
+        System.out.println("AVLTree same keys, order and select as buildFromSorted? " + sameKeys(parallelAvlTree, serialAvlTree));  // Expected: true
+        RedBlackTree parallelRbTree = new RedBlackTree();
+        parallelRbTree.buildParallel(shuffled);
+        RedBlackTree serialRbTree = new RedBlackTree();
+        serialRbTree.buildFromSorted(shuffled);
+        System.out.println("RedBlackTree size: " + parallelRbTree.size());  // Expected: 10000
+        System.out.println("RedBlackTree same keys, order and select as buildFromSorted? " + sameKeys(parallelRbTree, serialRbTree));  // Expected: true
+
+        // Test TreeSnapshot, a saved tree loads into any of the trees and a damaged file is refused
+        System.out.println("\nTesting TreeSnapshot:");
+        testSnapshot();
+    }
+
+    public static void testSnapshot() {
+        try {
+            Path file = Files.createTempFile("testtree", ".snapshot");
+            try {
+                AVLTree tree = new AVLTree();
+                for (String key : new String[] {"M", "B", "R", "A", "E", "S", "Z"}) {
+                    tree.insert(key);
+                }
+                System.out.println("Keys saved: " + TreeSnapshot.save(tree, file.toString()));  // Expected: 7
+                RedBlackTree loaded = new RedBlackTree();
+                System.out.println("Keys loaded: " + TreeSnapshot.load(loaded, file.toString()));  // Expected: 7
+                System.out.print("In-order traversal of the loaded tree: ");
+                loaded.inorder();  // Expected: A B E M R S Z
+                System.out.println();
+
+                byte[] saved = Files.readAllBytes(file);
+                byte[] damaged = saved.clone();
+                damaged[damaged.length - 1] ^= 1;
+                Files.write(file, damaged);
+                System.out.println("Damaged key refused? " + refused(loaded, file));  // Expected: true
+                damaged = saved.clone();
+                // the checksum is stored at offset 8
+                damaged[8] ^= 1;
+                Files.write(file, damaged);
+                System.out.println("Damaged checksum refused? " + refused(loaded, file));  // Expected: true
+                damaged = saved.clone();
+                damaged[0] ^= 1;
+                Files.write(file, damaged);
+                System.out.println("Damaged magic refused? " + refused(loaded, file));  // Expected: true
+                damaged = saved.clone();
+                // the key count is stored at offset 20, one less leaves a key unread
+                damaged[23]--;
+                Files.write(file, damaged);
+                System.out.println("Damaged count refused? " + refused(loaded, file));  // Expected: true
+                System.out.println("Number of nodes after the refused loads: " + loaded.countNodes());  // Expected: 7
+
+                tree.insert("bad\uD800");
+                try {
+                    TreeSnapshot.save(tree, file.toString());
+                    System.out.println("Unpaired surrogate refused? false");
+                } catch (IOException e) {
+                    System.out.println("Unpaired surrogate refused? true");  // Expected: true
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            System.out.println("An error occurred.");
+            e.printStackTrace();
+        }
+    }
+
+    // true when load throws instead of loading file
+    private static boolean refused(BinaryTree tree, Path file) {
+        try {
+            TreeSnapshot.load(tree, file.toString());
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    // true when both trees have the same size and the same keys in order, and select agrees with the order
+    private static boolean sameKeys(BinaryTree a, BinaryTree b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        Iterator<String> left = a.iterator();
+        Iterator<String> right = b.iterator();
+        for (int i = 0; left.hasNext(); i++) {
+            String key = left.next();
+            if (!right.hasNext() || !key.equals(right.next()) || !key.equals(a.select(i)) || !key.equals(b.select(i))) {
+                return false;
+            }
+        }
+        return !right.hasNext();
+    }
+
+    public static void testLoggedTree() {
+        try {
+            Path dir = Files.createTempDirectory("testtree");
+            try {
+                // group size 1, every change is written and synced before it returns
+                LoggedTree tree = new LoggedTree(new AVLTree(), dir.toString(), 1, LoggedTree.DEFAULT_COMPACT_BYTES);
+                logChanges(tree);
+                System.out.println("Syncs with group size 1: " + tree.getSyncs());  // Expected: 6
+                tree.close();
+                LoggedTree reopened = new LoggedTree(new RedBlackTree(), dir.toString());
+                System.out.println("Records replayed: " + reopened.getReplayed());  // Expected: 6
+                System.out.print("In-order traversal after reopening: ");
+                reopened.inorder();  // Expected: A E M R
+                System.out.println();
+                long logBytes = reopened.getLogBytes();
+                reopened.close();
+
+                // a crash in the middle of the last record, replay stops before it and cuts it off
+                Path log = dir.resolve("tree.log");
+                try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+                    channel.truncate(logBytes - 3);
+                }
+                reopened = new LoggedTree(new RedBlackTree(), dir.toString());
+                System.out.println("Records replayed after losing the end of the log: " + reopened.getReplayed());  // Expected: 5
+                System.out.print("In-order traversal without the last remove: ");
+                reopened.inorder();  // Expected: A B E M R
+                System.out.println();
+                System.out.println("Torn record cut off? " + (Files.size(log) < logBytes - 3));  // Expected: true
+                reopened.close();
+                deleteDirectory(dir);
+
+                // group size 64, nothing is written until the group fills or the log is synced
+                tree = new LoggedTree(new AVLTree(), dir.toString(), 64, LoggedTree.DEFAULT_COMPACT_BYTES);
+                logChanges(tree);
+                System.out.println("Syncs with group size 64: " + tree.getSyncs());  // Expected: 0
+                LoggedTree early = new LoggedTree(new RedBlackTree(), dir.toString());
+                System.out.println("Records replayed before the group is written: " + early.getReplayed());  // Expected: 0
+                early.close();
+                tree.close();
+                System.out.println("Syncs after closing: " + tree.getSyncs());  // Expected: 1
+                reopened = new LoggedTree(new RedBlackTree(), dir.toString());
+                System.out.println("Records replayed: " + reopened.getReplayed());  // Expected: 6
+                System.out.print("In-order traversal after reopening: ");
+                reopened.inorder();  // Expected: A E M R
+                System.out.println();
+                reopened.close();
+                deleteDirectory(dir);
+
+                // each record of a 5 letter key is 14 bytes, so a 64 byte log is compacted every 4 inserts
+                tree = new LoggedTree(new AVLTree(), dir.toString(), 1, 64);
+                for (int i = 0; i < 20; i++) {
+                    tree.insert(String.format("key%02d", i));
+                }
+                System.out.println("Compactions: " + tree.getCompactions());  // Expected: 5
+                tree.close();
+                reopened = new LoggedTree(new RedBlackTree(), dir.toString());
+                System.out.println("Records replayed after compacting: " + reopened.getReplayed());  // Expected: 0
+                System.out.println("Number of nodes from the snapshot: " + reopened.countNodes());  // Expected: 20
+                reopened.close();
+                deleteDirectory(dir);
+
+                // a crash after a new snapshot is saved and before the log is emptied, the older log is skipped
+                tree = new LoggedTree(new AVLTree(), dir.toString(), 1, LoggedTree.DEFAULT_COMPACT_BYTES);
+                logChanges(tree);
+                TreeSnapshot.save(tree, dir.resolve("tree.snapshot").toString(), tree.getGeneration() + 1);
+                tree.close();
+                reopened = new LoggedTree(new RedBlackTree(), dir.toString());
+                System.out.println("Records replayed from an older generation: " + reopened.getReplayed());  // Expected: 0
+                System.out.print("In-order traversal from the new snapshot: ");
+                reopened.inorder();  // Expected: A E M R
+                System.out.println();
+                reopened.buildFromSorted(new String[] {"X", "Y"});
+                System.out.println("Compactions after a bulk build: " + reopened.getCompactions());  // Expected: 0
+                reopened.close();
+                reopened = new LoggedTree(new RedBlackTree(), dir.toString());
+                System.out.print("In-order traversal after reopening the bulk build: ");
+                reopened.inorder();  // Expected: X Y
+                System.out.println();
+                reopened.close();
+            } finally {
+                deleteDirectory(dir);
+            }
+        } catch (IOException e) {
+            System.out.println("An error occurred.");
+            e.printStackTrace();
+        }
+    }
+
+    // Insert M, B, R, A, E and remove B
+    private static void logChanges(LoggedTree tree) {
+        for (String key : new String[] {"M", "B", "R", "A", "E"}) {
+            tree.insert(key);
+        }
+        tree.remove("B");
+    }
+
+    // Delete a test directory and the files in it
+    private static void deleteDirectory(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    // Checks a write drops the key's cached answer, then leaves the search A, B, A, C, B counted in a fresh cache
+    public static CachedTree testCachedTree(CachedTree.Policy policy) {
+        CachedTree tree = new CachedTree(new AVLTree(), 2, policy);
+        System.out.println("Searching for 'M': " + tree.search("M"));  // Expected: null
+        tree.insert("M");
+        System.out.println("Searching for 'M' after inserting it: " + tree.search("M"));  // Expected: M
+        System.out.println("Searching for 'M' again: " + tree.search("M"));  // Expected: M
+        tree.remove("M");
+        System.out.println("Searching for 'M' after removing it: " + tree.search("M"));  // Expected: null
+        System.out.println("Hits: " + tree.getHits() + ", misses: " + tree.getMisses());  // Expected: Hits: 1, misses: 3
+
+        tree = new CachedTree(new AVLTree(), 2, policy);
+        tree.insert("A");
+        tree.insert("B");
+        tree.insert("C");
+        for (String key : new String[] {"A", "B", "A", "C", "B"}) {
+            tree.search(key);
+        }
+        return tree;
+    }
+
+    public static void testIntTree(IntTree tree) {
+        System.out.println("Is the tree empty? " + tree.isEmpty());  // Expected: true
+        int[] keys = {50, 20, 80, 10, 30, 70, 90};
+        for (int key : keys) {
+            tree.insert(key);
+        }
+        tree.insert(50);
+        System.out.println("Number of keys after inserting 7 and a duplicate: " + tree.countNodes());  // Expected: 7
+        System.out.println("Searching for 30: " + tree.search(30));  // Expected: true
+        System.out.println("Searching for 40: " + tree.search(40));  // Expected: false
+
+        tree.remove(20);
+        tree.remove(50);
+        tree.remove(99);
+        System.out.println("Number of keys after removing 20, 50 and missing 99: " + tree.countNodes());  // Expected: 5
+        System.out.println("Searching for 20: " + tree.search(20));  // Expected: false
+        System.out.println("Searching for 30: " + tree.search(30));  // Expected: true
+
+        // the removed keys come back in reused slots
+        tree.insert(20);
+        tree.insert(50);
+        System.out.println("Searching for 20 and 50 after reinserting: " + (tree.search(20) && tree.search(50)));  // Expected: true
+        System.out.println("Number of keys: " + tree.countNodes());  // Expected: 7
+
+        for (int key : keys) {
+            tree.remove(key);
+        }
+        System.out.println("Is the tree empty after removing every key? " + tree.isEmpty());  // Expected: true
+
+        // enough keys, in scrambled order, to grow the tree and rebalance it many times
+        for (int i = 0; i < 1000; i++) {
+            tree.insert(i * 7919 % 1000);
+        }
+        for (int key = 0; key < 1000; key += 2) {
+            tree.remove(key);
+        }
+        boolean odd = true;
+        boolean even = false;
+        for (int key = 0; key < 1000; key++) {
+            if (key % 2 == 1) {
+                odd &= tree.search(key);
+            } else {
+                even |= tree.search(key);
+            }
+        }
+        System.out.println("Number of keys after inserting 1000 and removing the even ones: " + tree.countNodes());  // Expected: 500
+        System.out.println("Every odd key found, no even key found? " + (odd && !even));  // Expected: true
+        for (int key = 1; key < 1000; key += 2) {
+            tree.remove(key);
+        }
+        System.out.println("Is the tree empty after removing the rest? " + tree.isEmpty());  // Expected: true
+    }
+
+    public static void testTree(BinaryTree tree) {
+        // Test if the tree is initially empty
+        System.out.println("Is the tree empty? " + tree.isEmpty());  // Expected: true
+        System.out.println("Searching an empty tree for 'M': " + tree.search("M"));  // Expected: null
+
+        // Insert some elements into the tree
+        System.out.println("\nInserting elements into the tree...");
+        tree.insert("M");
+        tree.insert("C");
+        tree.insert("R");
+        tree.insert("A");
+        tree.insert("E");
+        tree.insert("S");
+        tree.insert("Z");
+
+        // Test if the tree is empty after insertions
+        System.out.println("Is the tree empty? " + tree.isEmpty());  // Expected: false
+
+        // Test searching for elements
+        System.out.println("\nSearching for elements in the tree...");
+        System.out.println("Searching for 'M': " + tree.search("M"));  // Expected: true
+        System.out.println("Searching for 'Z': " + tree.search("Z"));  // Expected: true
+        System.out.println("Searching for 'X': " + tree.search("X"));  // Expected: false
+
+        // Test traversals
+        System.out.println("\nIn-order traversal of the tree:");
+        tree.inorder();
+
+        // Test node counting
+        System.out.println("\nNumber of nodes in the tree: " + tree.countNodes());  // Expected: 7
+
+        // Test ordered queries
+        System.out.println("Floor of 'N': " + tree.floor("N"));  // Expected: M
+        System.out.println("Ceiling of 'N': " + tree.ceiling("N"));  // Expected: R
+        System.out.println("Rank of 'N': " + tree.rank("N"));  // Expected: 4
+        System.out.println("Key at index 2: " + tree.select(2));  // Expected: E
+        System.out.print("Keys from 'C' up to 'S': ");
+        Iterator<String> range = tree.subRange("C", "S");
+        while (range.hasNext()) {
+            System.out.print(range.next() + " ");  // Expected: C E M R
+        }
+        System.out.println();
+
+        // Test removals
+        System.out.println("\nRemoving elements from the tree...");
+        tree.remove("M");
+        tree.remove("C");
+        tree.remove("R");
+
+        // Test if the tree is empty after removals
+        System.out.println("Is the tree empty? " + tree.isEmpty());  // Expected: false
+
+        // Test node counting after removals
+        System.out.println("Number of nodes in the tree after removals: " + tree.countNodes());  // Expected: 4
+
+        // Test bulk loading, out of order input is sorted first
+        System.out.println("\nBulk loading the tree...");
+        tree.buildFromSorted(new String[] {"A", "C", "E", "M", "R", "Z", "S"});
+        tree.inorder();  // Expected: A C E M R S Z
+        System.out.println("\nNumber of nodes in the tree after bulk load: " + tree.countNodes());  // Expected: 7
+    }
+}
\ No newline at end of file